@@ -1,11 +1,17 @@
 package org.project.application.controller.fleet;
 
+import static org.project.application.util.RestUtil.page;
+
 import java.util.List;
 
 import org.project.application.dto.fleet.DriverDTO;
-import org.project.application.pagination.PageRequest;
+import org.project.application.dto.fleet.NearbyDriverDTO;
+import org.project.application.pagination.CursorRequest;
 import org.project.application.service.AvailableDriversService;
+import org.project.domain.shared.value_objects.PageCursor;
+import org.project.domain.shared.value_objects.Pageable;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -23,14 +29,28 @@ public class AvailableDriversController {
     }
 
     @GetMapping
-    public List<DriverDTO> availableDrivers(
+    public ResponseEntity<List<DriverDTO>> availableDrivers(
             @AuthenticationPrincipal Jwt jwt,
-            @RequestParam("page") int page,
-            @RequestParam("size") int size
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam("size") int size,
+            @RequestParam(value = "cursor", required = false) String cursor
     ) {
-        return availableDriversService.page(
-                jwt.getSubject(),
-                new PageRequest(size, page)
+        Pageable pageable = CursorRequest.of(size, page, cursor);
+        return page(
+                availableDriversService.page(jwt.getSubject(), pageable),
+                pageable,
+                driver -> PageCursor.of(driver.averageScore(), driver.driverID())
         );
     }
+
+    @GetMapping("/nearest")
+    public List<NearbyDriverDTO> nearestDrivers(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam("latitude") double latitude,
+            @RequestParam("longitude") double longitude,
+            @RequestParam(value = "radius", defaultValue = "5") double radiusKm,
+            @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        return availableDriversService.nearest(jwt.getSubject(), latitude, longitude, radiusKm, size);
+    }
 }
@@ -1,5 +1,7 @@
 package org.project.application.controller.fleet;
 
+import static org.project.application.util.RestUtil.IDEMPOTENCY_KEY_HEADER;
+
 import java.util.List;
 import java.util.UUID;
 
@@ -10,12 +12,15 @@ import org.project.application.dto.ride.RideRequestToDriver;
 import org.project.application.service.DriverService;
 import org.project.domain.ride.enumerations.RideRule;
 import org.project.domain.ride.value_object.RideRequestID;
+import org.project.infrastructure.cache.IdempotentResponses;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/driver")
@@ -23,9 +28,11 @@ import org.springframework.web.bind.annotation.*;
 public class DriverController {
 
     private final DriverService service;
+    private final IdempotentResponses idempotentResponses;
 
-    public DriverController(DriverService service) {
+    public DriverController(DriverService service, IdempotentResponses idempotentResponses) {
         this.service = service;
+        this.idempotentResponses = idempotentResponses;
     }
 
     @PostMapping("/registration")
@@ -37,6 +44,27 @@ public class DriverController {
         return ResponseEntity.accepted().build();
     }
 
+    @PostMapping("/location")
+    public ResponseEntity<Void> ping(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam("latitude") double latitude,
+            @RequestParam("longitude") double longitude
+    ) {
+        service.ping(jwt.getSubject(), latitude, longitude);
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/ride/location")
+    public ResponseEntity<Void> publishRideLocation(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam("rideID") UUID rideID,
+            @RequestParam("latitude") double latitude,
+            @RequestParam("longitude") double longitude
+    ) {
+        service.publishRideLocation(jwt.getSubject(), rideID, latitude, longitude);
+        return ResponseEntity.accepted().build();
+    }
+
     @PostMapping("/car/save")
     public ResponseEntity<Void> saveCar(
             @AuthenticationPrincipal Jwt jwt,
@@ -49,9 +77,17 @@ public class DriverController {
     @PostMapping("/create/ride")
     public RideDTO createRide(
             @AuthenticationPrincipal Jwt jwt,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody DriverRideForm rideForm
     ) {
-        return service.createRide(jwt.getSubject(), rideForm);
+        return idempotentResponses.once(
+                "create_ride",
+                jwt.getSubject(),
+                idempotencyKey,
+                rideForm,
+                RideDTO.class,
+                () -> service.createRide(jwt.getSubject(), rideForm)
+        );
     }
 
     @PatchMapping("/add/ride-rule")
@@ -108,14 +144,30 @@ public class DriverController {
         return service.rideRequests(jwt.getSubject());
     }
 
+    @GetMapping(value = "/ride-requests/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter rideRequestStream(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return service.rideRequestStream(jwt.getSubject(), lastEventId);
+    }
+
     @PostMapping("/accept/ride-request")
     public RideDTO acceptRideRequest(
             @AuthenticationPrincipal Jwt jwt,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestParam("rideRequestID") UUID rideRequestID
     ) {
-        return service.acceptRideRequest(
+        return idempotentResponses.once(
+                "accept_ride_request",
                 jwt.getSubject(),
-                new RideRequestID(rideRequestID)
+                idempotencyKey,
+                rideRequestID,
+                RideDTO.class,
+                () -> service.acceptRideRequest(
+                        jwt.getSubject(),
+                        new RideRequestID(rideRequestID)
+                )
         );
     }
 }
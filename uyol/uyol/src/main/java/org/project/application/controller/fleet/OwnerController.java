@@ -1,5 +1,6 @@
 package org.project.application.controller.fleet;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.project.application.dto.fleet.CarDTO;
@@ -7,11 +8,13 @@ import org.project.application.dto.ride.RideRequestToDriver;
 import org.project.application.service.OwnerService;
 import org.project.domain.ride.enumerations.RideRule;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/owner")
@@ -51,6 +54,21 @@ public class OwnerController {
         return ResponseEntity.accepted().build();
     }
 
+    @PostMapping("/ride/request/broadcast")
+    public ResponseEntity<Void> broadcastRide(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam("driverID") List<UUID> driverIDs,
+            @RequestBody RideRequestToDriver rideForm
+    ) {
+        service.broadcast(jwt.getSubject(), driverIDs, rideForm);
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping(value = "/ride/request/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter rideRequestOutcomes(@AuthenticationPrincipal Jwt jwt) {
+        return service.rideRequestOutcomes(jwt.getSubject());
+    }
+
     @PatchMapping("/add/ride-rule")
     public ResponseEntity<Void> addRideRule(
             @AuthenticationPrincipal Jwt jwt,
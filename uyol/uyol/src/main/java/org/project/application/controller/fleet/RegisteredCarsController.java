@@ -1,11 +1,16 @@
 package org.project.application.controller.fleet;
 
+import static org.project.application.util.RestUtil.page;
+
 import java.util.List;
 
 import org.project.application.dto.fleet.CarDTO;
-import org.project.application.pagination.PageRequest;
+import org.project.application.pagination.CursorRequest;
 import org.project.application.service.RegisteredCarsService;
+import org.project.domain.shared.value_objects.PageCursor;
+import org.project.domain.shared.value_objects.Pageable;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -23,14 +28,17 @@ public class RegisteredCarsController {
     }
 
     @GetMapping
-    public List<CarDTO> registeredCars(
+    public ResponseEntity<List<CarDTO>> registeredCars(
             @AuthenticationPrincipal Jwt jwt,
-            @RequestParam("pageNumber") int pageNumber,
-            @RequestParam("pageSize") int pageSize
+            @RequestParam(value = "pageNumber", defaultValue = "0") int pageNumber,
+            @RequestParam("pageSize") int pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor
     ) {
-        return carsService.registeredCars(
-                jwt.getSubject(),
-                new PageRequest(pageSize, pageNumber)
+        Pageable pageable = CursorRequest.of(pageSize, pageNumber, cursor);
+        return page(
+                carsService.registeredCars(jwt.getSubject(), pageable),
+                pageable,
+                car -> PageCursor.of(car.createdAt(), car.carID())
         );
     }
 }
@@ -1,13 +1,23 @@
 package org.project.application.controller.ride;
 
+import static org.project.application.util.RestUtil.page;
+
 import java.util.List;
+import java.util.UUID;
 
 import org.project.application.dto.ride.RideDTO;
-import org.project.application.pagination.PageRequest;
+import org.project.application.pagination.CursorRequest;
 import org.project.application.service.ActiveRidesService;
 import org.project.domain.ride.value_object.Location;
+import org.project.domain.ride.value_object.SearchRadius;
+import org.project.domain.shared.value_objects.PageCursor;
+import org.project.domain.shared.value_objects.Pageable;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/ride")
@@ -20,19 +30,22 @@ public class ActiveRidesController {
     }
 
     @GetMapping("/date")
-    public List<RideDTO> pageOf(
+    public ResponseEntity<List<RideDTO>> pageOf(
             @RequestParam("date") String date,
             @RequestParam("limit") int limit,
-            @RequestParam("offset") int offset
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "cursor", required = false) String cursor
     ) {
-        return ridesService.pageBy(
-                date,
-                new PageRequest(limit, offset)
+        Pageable pageable = CursorRequest.of(limit, offset, cursor);
+        return page(
+                ridesService.pageBy(date, pageable),
+                pageable,
+                ride -> PageCursor.of(ride.startTime(), ride.id())
         );
     }
 
     @GetMapping("/actual")
-    public List<RideDTO> actualFor(
+    public ResponseEntity<List<RideDTO>> actualFor(
             @RequestParam("date") String date,
             @RequestParam("startDesc") String startDesc,
             @RequestParam("startLat") double startLat,
@@ -40,14 +53,27 @@ public class ActiveRidesController {
             @RequestParam("endDesc") String endDesc,
             @RequestParam("endLat") double endLat,
             @RequestParam("endLon") double endLon,
+            @RequestParam(value = "radiusKm", defaultValue = "25") double radiusKm,
             @RequestParam("limit") int limit,
-            @RequestParam("offset") int offset
+            @RequestParam(value = "offset", defaultValue = "0") int offset,
+            @RequestParam(value = "cursor", required = false) String cursor
     ) {
-        return ridesService.actualFor(
-                date,
-                new Location(startDesc, startLat, startLon),
-                new Location(endDesc, endLat, endLon),
-                new PageRequest(limit, offset)
+        Pageable pageable = CursorRequest.of(limit, offset, cursor);
+        return page(
+                ridesService.actualFor(
+                        date,
+                        new Location(startDesc, startLat, startLon),
+                        new Location(endDesc, endLat, endLon),
+                        new SearchRadius(radiusKm),
+                        pageable
+                ),
+                pageable,
+                ride -> PageCursor.of(ride.startTime(), ride.id())
         );
     }
+
+    @GetMapping(value = "/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter seatStream(@RequestParam("rideID") UUID rideID) {
+        return ridesService.seatStream(rideID);
+    }
 }
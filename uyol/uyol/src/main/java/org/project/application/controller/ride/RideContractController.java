@@ -1,16 +1,23 @@
 package org.project.application.controller.ride;
 
+import static org.project.application.util.RestUtil.page;
+
 import java.util.List;
 import java.util.UUID;
 
 import org.project.application.dto.ride.RideContractDTO;
-import org.project.application.pagination.PageRequest;
+import org.project.application.pagination.CursorRequest;
 import org.project.application.service.RideContractService;
+import org.project.domain.shared.value_objects.PageCursor;
+import org.project.domain.shared.value_objects.Pageable;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/ride/contract")
@@ -32,28 +39,41 @@ public class RideContractController {
     }
 
     @GetMapping("/of/ride")
-    public List<RideContractDTO> rideContractsOfRide(
+    public ResponseEntity<List<RideContractDTO>> rideContractsOfRide(
             @AuthenticationPrincipal Jwt jwt,
             @RequestParam("rideID") UUID rideID,
-            @RequestParam int page,
-            @RequestParam int size
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor
     ) {
-        return rideContractService.ofRide(
-                jwt.getSubject(),
-                rideID,
-                new PageRequest(size, page)
+        Pageable pageable = CursorRequest.of(size, page, cursor);
+        return page(
+                rideContractService.ofRide(jwt.getSubject(), rideID, pageable),
+                pageable,
+                contract -> PageCursor.of(contract.createdAt(), contract.rideContractID())
         );
     }
 
     @GetMapping("/all")
-    public List<RideContractDTO> rideContractsOfUser(
+    public ResponseEntity<List<RideContractDTO>> rideContractsOfUser(
             @AuthenticationPrincipal Jwt jwt,
-            @RequestParam int page,
-            @RequestParam int size
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam int size,
+            @RequestParam(required = false) String cursor
     ) {
-        return rideContractService.ofUser(
-                jwt.getSubject(),
-                new PageRequest(size, page)
+        Pageable pageable = CursorRequest.of(size, page, cursor);
+        return page(
+                rideContractService.ofUser(jwt.getSubject(), pageable),
+                pageable,
+                contract -> PageCursor.of(contract.createdAt(), contract.rideContractID())
         );
     }
+
+    @GetMapping(value = "/location/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter rideLocationStream(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam("rideID") UUID rideID
+    ) {
+        return rideContractService.locationStream(jwt.getSubject(), rideID);
+    }
 }
@@ -1,11 +1,16 @@
 package org.project.application.controller.ride;
 
+import static org.project.application.util.RestUtil.page;
+
 import java.util.List;
 
 import org.project.application.dto.ride.RideDTO;
-import org.project.application.pagination.PageRequest;
+import org.project.application.pagination.CursorRequest;
 import org.project.application.service.RideHistoryService;
+import org.project.domain.shared.value_objects.PageCursor;
+import org.project.domain.shared.value_objects.Pageable;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -23,38 +28,47 @@ public class RideHistoryController {
     }
 
     @GetMapping("/user-rides")
-    public List<RideDTO> userRides(
+    public ResponseEntity<List<RideDTO>> userRides(
             @AuthenticationPrincipal Jwt jwt,
-            @RequestParam("pageNumber") int pageNumber,
-            @RequestParam("pageSize") int pageSize
+            @RequestParam(value = "pageNumber", defaultValue = "0") int pageNumber,
+            @RequestParam("pageSize") int pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor
     ) {
-        return historyService.userRides(
-                jwt.getSubject(),
-                new PageRequest(pageSize, pageNumber)
+        Pageable pageable = CursorRequest.of(pageSize, pageNumber, cursor);
+        return page(
+                historyService.userRides(jwt.getSubject(), pageable),
+                pageable,
+                ride -> PageCursor.of(ride.startTime(), ride.id())
         );
     }
 
     @GetMapping("/driver-rides")
-    public List<RideDTO> driverRides(
+    public ResponseEntity<List<RideDTO>> driverRides(
             @AuthenticationPrincipal Jwt jwt,
-            @RequestParam("pageNumber") int pageNumber,
-            @RequestParam("pageSize") int pageSize
+            @RequestParam(value = "pageNumber", defaultValue = "0") int pageNumber,
+            @RequestParam("pageSize") int pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor
     ) {
-        return historyService.driverRides(
-                jwt.getSubject(),
-                new PageRequest(pageSize, pageNumber)
+        Pageable pageable = CursorRequest.of(pageSize, pageNumber, cursor);
+        return page(
+                historyService.driverRides(jwt.getSubject(), pageable),
+                pageable,
+                ride -> PageCursor.of(ride.startTime(), ride.id())
         );
     }
 
     @GetMapping("/owner-rides")
-    public List<RideDTO> ownerRides(
+    public ResponseEntity<List<RideDTO>> ownerRides(
             @AuthenticationPrincipal Jwt jwt,
-            @RequestParam("pageNumber") int pageNumber,
-            @RequestParam("pageSize") int pageSize
+            @RequestParam(value = "pageNumber", defaultValue = "0") int pageNumber,
+            @RequestParam("pageSize") int pageSize,
+            @RequestParam(value = "cursor", required = false) String cursor
     ) {
-        return historyService.ownerRides(
-                jwt.getSubject(),
-                new PageRequest(pageSize, pageNumber)
+        Pageable pageable = CursorRequest.of(pageSize, pageNumber, cursor);
+        return page(
+                historyService.ownerRides(jwt.getSubject(), pageable),
+                pageable,
+                ride -> PageCursor.of(ride.startTime(), ride.id())
         );
     }
 }
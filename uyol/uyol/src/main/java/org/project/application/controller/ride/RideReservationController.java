@@ -1,11 +1,15 @@
 package org.project.application.controller.ride;
 
+import static org.project.application.util.RestUtil.IDEMPOTENCY_KEY_HEADER;
+
 import java.util.UUID;
 
 import org.project.application.dto.ride.BookingForm;
 import org.project.application.dto.ride.RideContractDTO;
+import org.project.application.dto.ride.SeatHoldDTO;
 import org.project.application.service.RideReservationService;
 import org.project.domain.ride.value_object.RideID;
+import org.project.infrastructure.cache.IdempotentResponses;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,17 +23,57 @@ import org.springframework.web.bind.annotation.*;
 public class RideReservationController {
 
     private final RideReservationService rideReservationService;
+    private final IdempotentResponses idempotentResponses;
 
-    public RideReservationController(RideReservationService rideReservationService) {
+    public RideReservationController(
+            RideReservationService rideReservationService,
+            IdempotentResponses idempotentResponses
+    ) {
         this.rideReservationService = rideReservationService;
+        this.idempotentResponses = idempotentResponses;
     }
 
     @PostMapping("/book")
     public RideContractDTO book(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody BookingForm bookingForm
+    ) {
+        return idempotentResponses.once(
+                "book",
+                jwt.getSubject(),
+                idempotencyKey,
+                bookingForm,
+                RideContractDTO.class,
+                () -> rideReservationService.book(jwt.getSubject(), bookingForm)
+        );
+    }
+
+    @PostMapping("/hold")
+    public SeatHoldDTO hold(
             @AuthenticationPrincipal Jwt jwt,
             @RequestBody BookingForm bookingForm
     ) {
-        return rideReservationService.book(jwt.getSubject(), bookingForm);
+        return rideReservationService.hold(jwt.getSubject(), bookingForm);
+    }
+
+    @PostMapping("/hold/confirm")
+    public RideContractDTO confirmHold(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam("rideID") UUID rideID,
+            @RequestParam("holdID") UUID holdID
+    ) {
+        return rideReservationService.confirmHold(jwt.getSubject(), new RideID(rideID), holdID);
+    }
+
+    @DeleteMapping("/hold")
+    public ResponseEntity<Void> releaseHold(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam("rideID") UUID rideID,
+            @RequestParam("holdID") UUID holdID
+    ) {
+        rideReservationService.releaseHold(jwt.getSubject(), new RideID(rideID), holdID);
+        return ResponseEntity.accepted().build();
     }
 
     @PostMapping("/rate/driver")
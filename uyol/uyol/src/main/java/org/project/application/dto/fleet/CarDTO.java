@@ -1,10 +1,14 @@
 package org.project.application.dto.fleet;
 
+import java.time.LocalDateTime;
+
 public record CarDTO(
+        String carID,
         String licensePlate,
         String carBrand,
         String carModel,
         String carColor,
         int carYear,
-        int seatCount
+        int seatCount,
+        LocalDateTime createdAt
 ) {}
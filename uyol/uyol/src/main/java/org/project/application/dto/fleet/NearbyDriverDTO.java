@@ -0,0 +1,11 @@
+package org.project.application.dto.fleet;
+
+import java.time.Instant;
+
+public record NearbyDriverDTO(
+        String driverID,
+        double latitude,
+        double longitude,
+        double distanceKm,
+        Instant lastSeen
+) {}
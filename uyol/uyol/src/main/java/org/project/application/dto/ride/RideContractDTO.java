@@ -4,6 +4,7 @@ import org.project.domain.ride.entities.RideContract;
 import org.project.domain.ride.value_object.PassengerSeat;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public record RideContractDTO(
@@ -12,7 +13,8 @@ public record RideContractDTO(
         String rideID,
         BigDecimal pricePerSeat,
         BigDecimal totalPrice,
-        List<PassengerSeat> passengerSeats) {
+        List<PassengerSeat> passengerSeats,
+        LocalDateTime createdAt) {
 
     public static RideContractDTO from(RideContract rideContract) {
         return new RideContractDTO(
@@ -21,7 +23,8 @@ public record RideContractDTO(
                 rideContract.rideID().value().toString(),
                 rideContract.pricePerSeat().amount(),
                 rideContract.totalPrice().amount(),
-                rideContract.bookedSeats().bookedSeats()
+                rideContract.bookedSeats().bookedSeats(),
+                rideContract.createdAt()
         );
     }
 }
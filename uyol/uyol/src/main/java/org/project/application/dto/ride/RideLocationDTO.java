@@ -0,0 +1,9 @@
+package org.project.application.dto.ride;
+
+import java.time.Instant;
+
+public record RideLocationDTO(
+        String rideID,
+        double latitude,
+        double longitude,
+        Instant at) {}
@@ -0,0 +1,8 @@
+package org.project.application.dto.ride;
+
+import org.project.domain.shared.annotations.Nullable;
+
+public record RideRequestOutcomeDTO(
+        String rideRequestID,
+        @Nullable String driverID,
+        @Nullable String rideID) {}
@@ -27,12 +27,17 @@ public record RideRequestToDriver(
         LocalDateTime endTime,
         BigDecimal price,
         String rideDesc,
-        RideRule[] rideRules
+        RideRule[] rideRules,
+        UUID rideRequestID
 ) {
     public RideRequest toRideRequest(OwnerID ownerID) {
+        return toRideRequest(ownerID, new DriverID(driverID));
+    }
+
+    public RideRequest toRideRequest(OwnerID ownerID, DriverID driverID) {
         return new RideRequest(
                 new RideRequestID(UUID.randomUUID()),
-                new DriverID(driverID),
+                driverID,
                 ownerID,
                 new LicensePlate(licensePlate()),
                 new Route(
@@ -63,7 +68,8 @@ public record RideRequestToDriver(
                 rideRequest.rideTime().endOfTheTrip(),
                 rideRequest.price().amount(),
                 rideRequest.rideDesc().value(),
-                rideRequest.rideRules().toArray(new RideRule[0])
+                rideRequest.rideRules().toArray(new RideRule[0]),
+                rideRequest.id().value()
         );
     }
 }
@@ -0,0 +1,9 @@
+package org.project.application.dto.ride;
+
+import org.project.domain.ride.value_object.PassengerSeat;
+
+import java.util.List;
+
+public record SeatChangesDTO(
+        String rideID,
+        List<PassengerSeat> seats) {}
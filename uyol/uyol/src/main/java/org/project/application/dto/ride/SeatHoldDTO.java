@@ -0,0 +1,12 @@
+package org.project.application.dto.ride;
+
+import org.project.domain.ride.value_object.PassengerSeat;
+
+import java.time.Instant;
+import java.util.List;
+
+public record SeatHoldDTO(
+        String holdID,
+        String rideID,
+        List<PassengerSeat> passengerSeats,
+        Instant expiresAt) {}
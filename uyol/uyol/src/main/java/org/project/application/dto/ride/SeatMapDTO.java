@@ -0,0 +1,13 @@
+package org.project.application.dto.ride;
+
+import org.project.domain.ride.entities.Ride;
+import org.project.domain.ride.enumerations.SeatStatus;
+
+public record SeatMapDTO(
+        String rideID,
+        SeatStatus[][] seatMap) {
+
+    public static SeatMapDTO from(Ride ride) {
+        return new SeatMapDTO(ride.id().value().toString(), ride.seatMap().seats());
+    }
+}
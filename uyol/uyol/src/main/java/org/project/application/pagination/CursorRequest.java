@@ -0,0 +1,37 @@
+package org.project.application.pagination;
+
+import java.util.Optional;
+
+import org.project.domain.shared.annotations.Nullable;
+import org.project.domain.shared.exceptions.IllegalDomainArgumentException;
+import org.project.domain.shared.value_objects.PageCursor;
+import org.project.domain.shared.value_objects.Pageable;
+
+public record CursorRequest(int limit, PageCursor after) implements Pageable {
+  public CursorRequest {
+    if (limit <= 0)
+      throw new IllegalDomainArgumentException("Limit must be positive");
+    if (after == null)
+      throw new IllegalDomainArgumentException("Cursor must be provided");
+
+    limit = PageRequest.buildLimit(limit);
+  }
+
+  @Override
+  public int offset() {
+    return 0;
+  }
+
+  @Override
+  public Optional<PageCursor> cursor() {
+    return Optional.of(after);
+  }
+
+  /** Cursor form when a token is supplied, the offset form otherwise. */
+  public static Pageable of(int limit, int page, @Nullable String cursor) {
+    if (cursor == null || cursor.isBlank())
+      return new PageRequest(limit, page);
+
+    return new CursorRequest(limit, PageCursor.decode(cursor));
+  }
+}
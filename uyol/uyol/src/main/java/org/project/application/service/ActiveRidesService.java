@@ -4,28 +4,39 @@ import static org.project.application.util.RestUtil.responseException;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.UUID;
 
 import org.project.application.dto.ride.RideDTO;
-import org.project.application.pagination.PageRequest;
+import org.project.domain.ride.entities.Ride;
 import org.project.domain.ride.repositories.RideRepository;
+import org.project.domain.ride.value_object.RideID;
 import org.project.domain.ride.value_object.Location;
+import org.project.domain.ride.value_object.SearchRadius;
 import org.project.domain.shared.containers.Result;
+import org.project.domain.shared.value_objects.Pageable;
+import org.project.infrastructure.cache.PendingRides;
+import org.project.infrastructure.push.RideSeatFeed;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Service
 public class ActiveRidesService {
 
+    private final PendingRides pendingRides;
     private final RideRepository rideRepository;
+    private final RideSeatFeed rideSeatFeed;
 
-    public ActiveRidesService(RideRepository rideRepository) {
+    public ActiveRidesService(PendingRides pendingRides, RideRepository rideRepository, RideSeatFeed rideSeatFeed) {
+        this.pendingRides = pendingRides;
         this.rideRepository = rideRepository;
+        this.rideSeatFeed = rideSeatFeed;
     }
 
     @Transactional(readOnly = true)
-    public List<RideDTO> pageBy(String date, PageRequest pageRequest) {
+    public List<RideDTO> pageBy(String date, Pageable page) {
         LocalDate localDate = Result
                 .ofThrowable(() -> LocalDate.parse(date))
                 .orElseThrow(() ->
@@ -36,7 +47,7 @@ public class ActiveRidesService {
                 );
 
         return rideRepository
-                .pageOf(localDate, pageRequest)
+                .pageOf(localDate, page)
                 .orElseThrow(() ->
                         responseException(
                                 HttpStatus.NOT_FOUND,
@@ -50,7 +61,8 @@ public class ActiveRidesService {
             String date,
             Location startLocation,
             Location endLocation,
-            PageRequest pageRequest
+            SearchRadius radius,
+            Pageable page
     ) {
         LocalDate localDate = Result
                 .ofThrowable(() -> LocalDate.parse(date))
@@ -61,8 +73,11 @@ public class ActiveRidesService {
                         )
                 );
 
+        if (pendingRides.isWarm())
+            return pendingRides.actualFor(startLocation, endLocation, radius, localDate, page);
+
         return rideRepository
-                .actualFor(startLocation, endLocation, localDate, pageRequest)
+                .actualFor(startLocation, endLocation, radius, localDate, page)
                 .orElseThrow(() ->
                         responseException(
                                 HttpStatus.NOT_FOUND,
@@ -70,4 +85,29 @@ public class ActiveRidesService {
                         )
                 );
     }
+
+    /**
+     * Streams the seat map of a ride once and then every booked seat, so a ride detail view stays
+     * current without reading the ride again.
+     */
+    public SseEmitter seatStream(UUID rideUUID) {
+        RideID rideID = new RideID(rideUUID);
+        SseEmitter emitter = rideSeatFeed.subscribe(rideID);
+
+        try {
+            Ride ride = rideRepository.findBy(rideID)
+                    .orElseThrow(() ->
+                            responseException(
+                                    HttpStatus.NOT_FOUND,
+                                    "Ride is not found."
+                            )
+                    );
+
+            rideSeatFeed.seatMap(emitter, ride);
+            return emitter;
+        } catch (RuntimeException e) {
+            rideSeatFeed.unsubscribe(rideID, emitter);
+            throw e;
+        }
+    }
 }
@@ -4,6 +4,7 @@ import static org.project.application.util.RestUtil.required;
 import static org.project.application.util.RestUtil.responseException;
 
 import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.project.application.dto.auth.*;
 import org.project.domain.shared.containers.Result;
@@ -13,6 +14,8 @@ import org.project.domain.user.factories.IdentifierFactory;
 import org.project.domain.user.repositories.OTPRepository;
 import org.project.domain.user.repositories.UserRepository;
 import org.project.domain.user.value_objects.*;
+import org.project.infrastructure.cache.UniqueKeys;
+import org.project.infrastructure.cache.UniqueKeys.Kind;
 import org.project.infrastructure.communication.EmailInteractionService;
 import org.project.infrastructure.communication.PhoneInteractionService;
 import org.project.infrastructure.security.HOTPGenerator;
@@ -31,18 +34,21 @@ public class AuthService {
     private final HOTPGenerator hotpGenerator = new HOTPGenerator();
     private final OTPRepository otpRepository;
     private final UserRepository userRepository;
+    private final UniqueKeys uniqueKeys;
     private final PasswordEncoder passwordEncoder;
     private final EmailInteractionService emailInteractionService;
     private final PhoneInteractionService phoneInteractionService;
 
     public AuthService(
             UserRepository userRepository,
+            UniqueKeys uniqueKeys,
             OTPRepository otpRepository,
             EmailInteractionService emailInteractionService,
             PhoneInteractionService phoneInteractionService,
             PasswordEncoder passwordEncoder
     ) {
         this.userRepository = userRepository;
+        this.uniqueKeys = uniqueKeys;
         this.otpRepository = otpRepository;
         this.emailInteractionService = emailInteractionService;
         this.phoneInteractionService = phoneInteractionService;
@@ -59,23 +65,29 @@ public class AuthService {
 
         Password.validate(form.password());
 
-        if (form.email() != null && userRepository.isEmailExists(new Email(form.email())))
+        if (form.email() != null
+                && uniqueKeys.mightExist(Kind.EMAIL, form.email())
+                && userRepository.isEmailExists(new Email(form.email())))
             throw responseException(HttpStatus.CONFLICT, "Email already used");
 
-        if (form.phone() != null && userRepository.isPhoneExists(new Phone(form.phone())))
+        if (form.phone() != null
+                && uniqueKeys.mightExist(Kind.PHONE, form.phone())
+                && userRepository.isPhoneExists(new Phone(form.phone())))
             throw responseException(HttpStatus.CONFLICT, "Phone already used");
 
         PersonalData data = new PersonalData(
                 form.firstname(),
                 form.surname(),
                 form.phone(),
-                passwordEncoder.encode(form.password()),
+                hash(form.password()),
                 form.email(),
                 form.birthDate()
         );
 
         User user = User.of(data, HOTPGenerator.generateSecretKey());
         userRepository.save(user).orElseThrow();
+        if (form.email() != null) uniqueKeys.add(Kind.EMAIL, form.email());
+        if (form.phone() != null) uniqueKeys.add(Kind.PHONE, form.phone());
 
         generateAndSendOTP(user);
     }
@@ -87,9 +99,12 @@ public class AuthService {
 
         User user = verifiedUserBy(form.identifier());
 
-        if (!passwordEncoder.verify(form.password(), user.personalData().password().orElseThrow()))
+        String hashed = user.personalData().password().orElseThrow();
+        if (!verify(form.password(), hashed))
             throw responseException(HttpStatus.UNAUTHORIZED, "Invalid credentials");
 
+        if (passwordEncoder.needsRehash(hashed)) rehash(user, form.password());
+
         return dummyTokens();
     }
 
@@ -166,7 +181,7 @@ public class AuthService {
                 .orElseThrow(() -> responseException(HttpStatus.NOT_FOUND, "OTP not found"));
 
         User user = userRepository.findBy(otp.userID()).orElseThrow();
-        user.changePassword(new Password(passwordEncoder.encode(form.newPassword())));
+        user.changePassword(new Password(hash(form.newPassword())));
         userRepository.updatePassword(user).orElseThrow();
     }
 
@@ -206,6 +221,36 @@ public class AuthService {
                 );
     }
 
+    private String hash(String password) {
+        try {
+            return passwordEncoder.encode(password);
+        } catch (RejectedExecutionException e) {
+            throw responseException(HttpStatus.TOO_MANY_REQUESTS, "Too many requests right now. Please try again.");
+        }
+    }
+
+    private boolean verify(String password, String hashed) {
+        try {
+            return passwordEncoder.verify(password, hashed);
+        } catch (RejectedExecutionException e) {
+            throw responseException(HttpStatus.TOO_MANY_REQUESTS, "Too many requests right now. Please try again.");
+        }
+    }
+
+    /** Upgrades a hash made with older parameters; the login succeeds even if this does not. */
+    private void rehash(User user, String password) {
+        try {
+            user.changePassword(new Password(passwordEncoder.encode(password)));
+        } catch (RejectedExecutionException e) {
+            log.debug("Hashing pool is busy, password of user {} is rehashed on a later login", user.id());
+            return;
+        }
+
+        Result<Integer, Throwable> updated = userRepository.updatePassword(user);
+        if (!updated.success())
+            log.warn("Unable to store rehashed password of user {}", user.id(), updated.throwable());
+    }
+
     private Tokens dummyTokens() {
         return new Tokens("DUMMY_ACCESS_TOKEN", "DUMMY_REFRESH_TOKEN");
     }
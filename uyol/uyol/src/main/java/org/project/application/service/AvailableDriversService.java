@@ -5,13 +5,13 @@ import static org.project.application.util.RestUtil.responseException;
 import java.util.List;
 
 import org.project.application.dto.fleet.DriverDTO;
-import org.project.application.pagination.PageRequest;
+import org.project.application.dto.fleet.NearbyDriverDTO;
 import org.project.domain.fleet.repositories.DriverRepository;
-import org.project.domain.fleet.repositories.OwnerRepository;
-import org.project.domain.shared.value_objects.UserID;
-import org.project.domain.user.entities.User;
-import org.project.domain.user.factories.IdentifierFactory;
-import org.project.domain.user.repositories.UserRepository;
+import org.project.domain.ride.value_object.SearchRadius;
+import org.project.domain.shared.value_objects.Pageable;
+import org.project.infrastructure.cache.DriverLeaderboard;
+import org.project.infrastructure.cache.DriverLocations;
+import org.project.infrastructure.cache.PrincipalContexts;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -20,39 +20,57 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class AvailableDriversService {
 
-    private final UserRepository userRepository;
-    private final OwnerRepository ownerRepository;
+    static final int MAX_NEAREST = 50;
+
+    private final PrincipalContexts principals;
     private final DriverRepository driverRepository;
+    private final DriverLeaderboard driverLeaderboard;
+    private final DriverLocations driverLocations;
 
     public AvailableDriversService(
-            UserRepository userRepository,
-            OwnerRepository ownerRepository,
-            DriverRepository driverRepository
+            PrincipalContexts principals,
+            DriverRepository driverRepository,
+            DriverLeaderboard driverLeaderboard,
+            DriverLocations driverLocations
     ) {
-        this.userRepository = userRepository;
-        this.ownerRepository = ownerRepository;
+        this.principals = principals;
         this.driverRepository = driverRepository;
+        this.driverLeaderboard = driverLeaderboard;
+        this.driverLocations = driverLocations;
     }
 
     @Transactional(readOnly = true)
-    public List<DriverDTO> page(String identifier, PageRequest pageRequest) {
-        User user = userRepository
-                .findBy(IdentifierFactory.from(identifier))
-                .orElseThrow();
-
-        if (!ownerRepository.isOwnerExists(new UserID(user.id())))
-            throw responseException(
-                    HttpStatus.FORBIDDEN,
-                    "Owner account is not registered"
-            );
+    public List<DriverDTO> page(String identifier, Pageable page) {
+        requireOwner(identifier);
 
-        return driverRepository
-                .page(pageRequest)
+        return driverLeaderboard.page(page).orElseGet(() -> driverRepository
+                .page(page)
                 .orElseThrow(() ->
                         responseException(
                                 HttpStatus.NOT_FOUND,
                                 "Cannot find available drivers"
                         )
-                );
+                ));
+    }
+
+    @Transactional(readOnly = true)
+    public List<NearbyDriverDTO> nearest(String identifier, double latitude, double longitude, double radiusKm, int size) {
+        requireOwner(identifier);
+
+        if (size < 1 || size > MAX_NEAREST)
+            throw responseException(
+                    HttpStatus.BAD_REQUEST,
+                    "Size must be between 1 and %d.".formatted(MAX_NEAREST)
+            );
+
+        return driverLocations.nearest(latitude, longitude, new SearchRadius(radiusKm), size);
+    }
+
+    private void requireOwner(String identifier) {
+        if (!principals.resolve(identifier).orElseThrow().isOwner())
+            throw responseException(
+                    HttpStatus.FORBIDDEN,
+                    "Owner account is not registered"
+            );
     }
 }
@@ -2,8 +2,11 @@ package org.project.application.service;
 
 import static org.project.application.util.RestUtil.required;
 import static org.project.application.util.RestUtil.responseException;
+import static org.project.application.util.RestUtil.retryOnConflict;
+import static org.project.application.util.RestUtil.written;
 
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.project.application.dto.fleet.CarDTO;
 import org.project.application.dto.ride.DriverRideForm;
@@ -21,78 +24,199 @@ import org.project.domain.ride.enumerations.RideRule;
 import org.project.domain.ride.repositories.RideRepository;
 import org.project.domain.ride.value_object.*;
 import org.project.domain.shared.annotations.Nullable;
+import org.project.domain.shared.value_objects.DriverID;
 import org.project.domain.shared.value_objects.UserID;
-import org.project.domain.user.entities.User;
-import org.project.domain.user.factories.IdentifierFactory;
-import org.project.domain.user.repositories.UserRepository;
-import org.project.infrastructure.cache.RideRequests;
+import org.project.domain.user.value_objects.PrincipalContext;
+import org.project.infrastructure.cache.DriverLeaderboard;
+import org.project.infrastructure.cache.DriverLocations;
+import org.project.infrastructure.cache.PendingRides;
+import org.project.infrastructure.cache.PrincipalContexts;
+import org.project.infrastructure.cache.RideRequestStore;
+import org.project.infrastructure.cache.SeatHolds;
+import org.project.infrastructure.cache.UniqueKeys;
+import org.project.infrastructure.cache.UniqueKeys.Kind;
+import org.project.infrastructure.concurrency.RideBookingSequencer;
+import org.project.infrastructure.push.OwnerRideRequestFeed;
+import org.project.infrastructure.push.RideLocationFeed;
+import org.project.infrastructure.push.RideRequestRelay;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Service
 public class DriverService {
 
-    private final RideRequests rideRequests;
+    private final PrincipalContexts principals;
+    private final UniqueKeys uniqueKeys;
+    private final RideRequestStore rideRequests;
+    private final PendingRides pendingRides;
+    private final SeatHolds seatHolds;
+    private final DriverLeaderboard driverLeaderboard;
+    private final DriverLocations driverLocations;
+    private final RideRequestRelay rideRequestRelay;
+    private final OwnerRideRequestFeed ownerRideRequestFeed;
+    private final RideLocationFeed rideLocationFeed;
+    private final RideBookingSequencer bookingSequencer;
     private final CarRepository carRepository;
-    private final UserRepository userRepository;
     private final RideRepository rideRepository;
     private final DriverRepository driverRepository;
 
     public DriverService(
-            Optional<RideRequests> rideRequests,
+            PrincipalContexts principals,
+            UniqueKeys uniqueKeys,
+            RideRequestStore rideRequests,
+            PendingRides pendingRides,
+            SeatHolds seatHolds,
+            DriverLeaderboard driverLeaderboard,
+            DriverLocations driverLocations,
+            RideRequestRelay rideRequestRelay,
+            OwnerRideRequestFeed ownerRideRequestFeed,
+            RideLocationFeed rideLocationFeed,
+            RideBookingSequencer bookingSequencer,
             CarRepository carRepository,
             RideRepository rideRepository,
-            UserRepository userRepository,
             DriverRepository driverRepository
     ) {
-        this.rideRequests = rideRequests.orElse(null);
+        this.principals = principals;
+        this.uniqueKeys = uniqueKeys;
+        this.rideRequests = rideRequests;
+        this.pendingRides = pendingRides;
+        this.seatHolds = seatHolds;
+        this.driverLeaderboard = driverLeaderboard;
+        this.driverLocations = driverLocations;
+        this.rideRequestRelay = rideRequestRelay;
+        this.ownerRideRequestFeed = ownerRideRequestFeed;
+        this.rideLocationFeed = rideLocationFeed;
+        this.bookingSequencer = bookingSequencer;
         this.carRepository = carRepository;
         this.rideRepository = rideRepository;
-        this.userRepository = userRepository;
         this.driverRepository = driverRepository;
     }
 
     @Transactional
     public void register(String identifier, String driverLicense) {
         DriverLicense license = new DriverLicense(driverLicense);
-        User user = userRepository.findBy(IdentifierFactory.from(identifier)).orElseThrow();
+        PrincipalContext principal = principals.resolve(identifier).orElseThrow();
 
-        if (driverRepository.isDriverExists(new UserID(user.id())))
+        if (principal.isDriver() || driverRepository.isDriverExists(principal.userID()))
             throw responseException(
                     HttpStatus.CONFLICT,
                     "Driver is already registered on this user account."
             );
 
-        if (driverRepository.isLicenseExists(license))
+        if (uniqueKeys.mightExist(Kind.DRIVER_LICENSE, license.licenseNumber())
+                && driverRepository.isLicenseExists(license))
             throw responseException(
                     HttpStatus.CONFLICT,
                     "This driver license is already registered."
             );
 
-        Driver driver = Driver.of(new UserID(user.id()), license);
+        Driver driver = Driver.of(principal.userID(), license);
         driverRepository.save(driver)
                 .orElseThrow(RestUtil::unableToProcessRequestException);
+
+        uniqueKeys.add(Kind.DRIVER_LICENSE, license.licenseNumber());
+        principals.invalidate(principal.userID());
+        driverLeaderboard.update(driver);
+    }
+
+    /**
+     * Records the driver's position. The account comes from {@link PrincipalContexts}; the driver
+     * row is only read the first time this node sees the driver, to learn whether it is busy.
+     */
+    public void ping(String identifier, double latitude, double longitude) {
+        DriverID driverID = driverOf(identifier);
+        if (!driverLocations.knows(driverID)) {
+            UserID userID = principals.resolve(identifier).orElseThrow().userID();
+            Driver driver = driverRepository.findBy(userID)
+                    .orElseThrow(() ->
+                            responseException(
+                                    HttpStatus.NOT_FOUND,
+                                    "Driver account is not found."
+                            )
+                    );
+
+            driverLocations.learn(driver);
+        }
+
+        if (!driverLocations.ping(driverID, latitude, longitude))
+            throw responseException(
+                    HttpStatus.CONFLICT,
+                    "Only available drivers share their location."
+            );
+    }
+
+    /**
+     * Shares the car's position with the passengers of a ride on the road. Only the first
+     * position of a ride on this node reads the ride, later ones go straight to
+     * {@link RideLocationFeed}.
+     */
+    public void publishRideLocation(String identifier, UUID rideUUID, double latitude, double longitude) {
+        RideID rideID = new RideID(rideUUID);
+        DriverID driverID = driverOf(identifier);
+
+        if (!rideLocationFeed.isPublisher(rideID, driverID)) {
+            Ride ride = rideRepository.findBy(rideID)
+                    .orElseThrow(() ->
+                            responseException(
+                                    HttpStatus.NOT_FOUND,
+                                    "Ride is not found."
+                            )
+                    );
+
+            if (!ride.rideOwner().driverID().equals(driverID))
+                throw responseException(
+                        HttpStatus.FORBIDDEN,
+                        "You are not a driver of this ride."
+                );
+
+            if (!ride.isActive())
+                throw responseException(
+                        HttpStatus.CONFLICT,
+                        "Location is shared only while the ride is on the road."
+                );
+
+            try {
+                rideLocationFeed.open(rideID, driverID);
+            } catch (RejectedExecutionException e) {
+                throw responseException(HttpStatus.SERVICE_UNAVAILABLE, "Ride location is not accepted right now.");
+            }
+        }
+
+        if (!rideLocationFeed.publish(rideID, latitude, longitude))
+            throw responseException(
+                    HttpStatus.CONFLICT,
+                    "Location is shared only while the ride is on the road."
+            );
     }
 
     @Transactional
     public void saveCar(String identifier, CarDTO carDTO) {
         required("carForm", carDTO);
 
-        User user = userRepository.findBy(IdentifierFactory.from(identifier)).orElseThrow();
-        UserID userID = new UserID(user.id());
+        PrincipalContext principal = principals.resolve(identifier).orElseThrow();
+        UserID userID = principal.userID();
 
-        if (!driverRepository.isDriverExists(userID))
+        if (!principal.isDriver())
             throw responseException(
                     HttpStatus.NOT_FOUND,
                     "Driver account is not found."
             );
 
+        LicensePlate licensePlate = new LicensePlate(carDTO.licensePlate());
+        if (uniqueKeys.mightExist(Kind.LICENSE_PLATE, licensePlate.value())
+                && carRepository.isLicenseTemplateExists(licensePlate))
+            throw responseException(
+                    HttpStatus.CONFLICT,
+                    "This license plate is already registered."
+            );
+
         Car car = Car.of(
                 userID,
-                new LicensePlate(carDTO.licensePlate()),
+                licensePlate,
                 new CarBrand(carDTO.carBrand()),
                 new CarModel(carDTO.carModel()),
                 new CarColor(carDTO.carColor()),
@@ -102,53 +226,29 @@ public class DriverService {
 
         carRepository.save(car)
                 .orElseThrow(RestUtil::unableToProcessRequestException);
+
+        uniqueKeys.add(Kind.LICENSE_PLATE, licensePlate.value());
     }
 
     @Transactional(readOnly = true)
     public List<RideRequestToDriver> rideRequests(String identifier) {
-        User user = userRepository.findBy(IdentifierFactory.from(identifier)).orElseThrow();
-        UserID userID = new UserID(user.id());
-
-        Driver driver = driverRepository.findBy(userID)
-                .orElseThrow(() ->
-                        responseException(
-                                HttpStatus.NOT_FOUND,
-                                "Driver account is not found."
-                        )
-                );
-
-        if (rideRequests == null) {
-            return List.of();
-        }
-
-        return rideRequests.pageOf(driver.id())
+        return rideRequests.pageOf(driverOf(identifier))
                 .stream()
                 .map(RideRequestToDriver::from)
                 .toList();
 
     }
 
+    public SseEmitter rideRequestStream(String identifier, @Nullable String lastEventId) {
+        return rideRequestRelay.subscribe(driverOf(identifier), lastEventId);
+    }
+
     @Transactional
     public RideDTO acceptRideRequest(String identifier, RideRequestID rideRequestID) {
-        if (rideRequests == null) {
-            throw responseException(
-                    HttpStatus.SERVICE_UNAVAILABLE,
-                    "Ride requests service is disabled"
-            );
-        }
-        User user = userRepository.findBy(IdentifierFactory.from(identifier)).orElseThrow();
-        UserID userID = new UserID(user.id());
-
-        Driver driver = driverRepository.findBy(userID)
-                .orElseThrow(() ->
-                        responseException(
-                                HttpStatus.NOT_FOUND,
-                                "Driver account is not found."
-                        )
-                );
+        DriverID driverID = driverOf(identifier);
 
         RideRequest rideRequest = rideRequests
-                .del(driver.id(), rideRequestID)
+                .claim(driverID, rideRequestID)
                 .orElseThrow(() -> responseException(
                 HttpStatus.NOT_FOUND,
                 "Ride request is not found"
@@ -166,7 +266,7 @@ public class DriverService {
 
         Ride ride = Ride.of(
                 car.id(),
-                new RideOwner(driver.id(), rideRequest.ownerID()),
+                new RideOwner(driverID, rideRequest.ownerID()),
                 rideRequest.route(),
                 rideRequest.rideTime(),
                 rideRequest.price(),
@@ -178,6 +278,8 @@ public class DriverService {
         rideRepository.save(ride)
                 .orElseThrow(RestUtil::unableToProcessRequestException);
 
+        pendingRides.put(ride);
+        ownerRideRequestFeed.accepted(rideRequest, ride.id());
         return RideDTO.from(ride);
     }
 
@@ -185,8 +287,7 @@ public class DriverService {
     public RideDTO createRide(String identifier, DriverRideForm rideForm) {
         required("rideForm", rideForm);
 
-        User user = userRepository.findBy(IdentifierFactory.from(identifier)).orElseThrow();
-        UserID userID = new UserID(user.id());
+        UserID userID = principals.resolve(identifier).orElseThrow().userID();
 
         Driver driver = driverRepository.findBy(userID)
                 .orElseThrow(() ->
@@ -251,61 +352,85 @@ public class DriverService {
         driverRepository.updateStatus(driver)
                 .orElseThrow(RestUtil::unableToProcessRequestException);
 
+        driverLeaderboard.update(driver);
+        driverLocations.update(driver);
+        pendingRides.put(ride);
         return RideDTO.from(ride);
     }
 
     @Transactional
     public void addRideRule(String identifier, RideRule rideRule, UUID rideUUID) {
-        Ride ride = validateAndRetrieveRide(identifier, rideUUID);
-        ride.addRideRule(rideRule);
-        rideRepository.updateRules(ride)
-                .orElseThrow(RestUtil::unableToProcessRequestException);
+        retryOnConflict(() -> {
+            Ride ride = validateAndRetrieveRide(identifier, rideUUID);
+            ride.addRideRule(rideRule);
+            written(rideRepository.updateRules(ride));
+        });
     }
 
     @Transactional
     public void removeRideRule(String identifier, RideRule rideRule, UUID rideUUID) {
-        Ride ride = validateAndRetrieveRide(identifier, rideUUID);
-        ride.removeRideRule(rideRule);
-        rideRepository.updateRules(ride)
-                .orElseThrow(RestUtil::unableToProcessRequestException);
+        retryOnConflict(() -> {
+            Ride ride = validateAndRetrieveRide(identifier, rideUUID);
+            ride.removeRideRule(rideRule);
+            written(rideRepository.updateRules(ride));
+        });
     }
 
     @Transactional
     public void startRide(String identifier, UUID rideUUID) {
-        Ride ride = validateAndRetrieveRide(identifier, rideUUID);
-        ride.start();
-        rideRepository.updateStatus(ride)
-                .orElseThrow(RestUtil::unableToProcessRequestException);
+        Ride ride = retryOnConflict(() -> {
+            Ride current = validateAndRetrieveRide(identifier, rideUUID);
+            current.start();
+            written(rideRepository.updateStatus(current));
+            return current;
+        });
+
+        bookingSequencer.evict(ride.id());
+        seatHolds.forget(ride.id());
+        pendingRides.put(ride);
     }
 
     @Transactional
     public void cancelRide(String identifier, UUID rideUUID) {
-        Ride ride = validateAndRetrieveRide(identifier, rideUUID);
-        ride.cancel();
-        rideRepository.updateStatus(ride)
-                .orElseThrow(RestUtil::unableToProcessRequestException);
+        Ride ride = retryOnConflict(() -> {
+            Ride current = validateAndRetrieveRide(identifier, rideUUID);
+            current.cancel();
+            written(rideRepository.updateStatus(current));
+            return current;
+        });
+
+        bookingSequencer.evict(ride.id());
+        seatHolds.forget(ride.id());
+        pendingRides.put(ride);
+        rideLocationFeed.close(ride.id());
     }
 
     @Transactional
     public void finishRide(String identifier, UUID rideUUID) {
-        Ride ride = validateAndRetrieveRide(identifier, rideUUID);
-        ride.finish();
-        rideRepository.updateStatus(ride)
-                .orElseThrow(RestUtil::unableToProcessRequestException);
-    }
+        retryOnConflict(() -> {
+            Ride ride = validateAndRetrieveRide(identifier, rideUUID);
+            ride.finish();
+            written(rideRepository.updateStatus(ride));
+        });
 
-    @Transactional(readOnly = true)
-    protected Ride validateAndRetrieveRide(String identifier, UUID rideUUID) {
-        User user = userRepository.findBy(IdentifierFactory.from(identifier)).orElseThrow();
-        UserID userID = new UserID(user.id());
+        rideLocationFeed.close(new RideID(rideUUID));
+    }
 
-        Driver driver = driverRepository.findBy(userID)
+    private DriverID driverOf(String identifier) {
+        return principals.resolve(identifier)
+                .orElseThrow()
+                .driver()
                 .orElseThrow(() ->
                         responseException(
                                 HttpStatus.NOT_FOUND,
                                 "Driver account is not found."
                         )
                 );
+    }
+
+    @Transactional(readOnly = true)
+    protected Ride validateAndRetrieveRide(String identifier, UUID rideUUID) {
+        DriverID driverID = driverOf(identifier);
 
         Ride ride = rideRepository.findBy(new RideID(rideUUID))
                 .orElseThrow(() ->
@@ -316,7 +441,7 @@ public class DriverService {
                 );
 
         boolean notADriverOfThisRide =
-                !ride.rideOwner().driverID().equals(driver.id());
+                !ride.rideOwner().driverID().equals(driverID);
 
         if (notADriverOfThisRide)
             throw responseException(
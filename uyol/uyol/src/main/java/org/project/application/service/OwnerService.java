@@ -2,9 +2,14 @@ package org.project.application.service;
 
 import static org.project.application.util.RestUtil.required;
 import static org.project.application.util.RestUtil.responseException;
+import static org.project.application.util.RestUtil.retryOnConflict;
+import static org.project.application.util.RestUtil.written;
 
-import java.util.Optional;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.project.application.dto.fleet.CarDTO;
 import org.project.application.dto.ride.RideRequestToDriver;
@@ -29,35 +34,60 @@ import org.project.domain.ride.repositories.RideRepository;
 import org.project.domain.ride.value_object.RideID;
 import org.project.domain.shared.value_objects.DriverID;
 import org.project.domain.shared.value_objects.UserID;
-import org.project.domain.user.entities.User;
-import org.project.domain.user.factories.IdentifierFactory;
-import org.project.domain.user.repositories.UserRepository;
-import org.project.infrastructure.cache.RideRequests;
+import org.project.domain.user.value_objects.PrincipalContext;
+import org.project.infrastructure.cache.PendingRides;
+import org.project.infrastructure.cache.PrincipalContexts;
+import org.project.infrastructure.cache.RideRequestStore;
+import org.project.infrastructure.cache.SeatHolds;
+import org.project.infrastructure.cache.UniqueKeys;
+import org.project.infrastructure.cache.UniqueKeys.Kind;
+import org.project.infrastructure.concurrency.RideBookingSequencer;
+import org.project.infrastructure.push.OwnerRideRequestFeed;
+import org.project.infrastructure.push.RideLocationFeed;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Service
 public class OwnerService {
 
-    private final RideRequests rideRequests;
+    private final PrincipalContexts principals;
+    private final UniqueKeys uniqueKeys;
+    private final RideRequestStore rideRequests;
+    private final PendingRides pendingRides;
+    private final SeatHolds seatHolds;
+    private final RideBookingSequencer bookingSequencer;
+    private final OwnerRideRequestFeed ownerRideRequestFeed;
+    private final RideLocationFeed rideLocationFeed;
     private final CarRepository carRepository;
-    private final UserRepository userRepository;
     private final OwnerRepository ownerRepository;
     private final DriverRepository driverRepository;
     private final RideRepository rideRepository;
 
     public OwnerService(
-            Optional<RideRequests> rideRequests,
-            UserRepository userRepository,
+            PrincipalContexts principals,
+            UniqueKeys uniqueKeys,
+            RideRequestStore rideRequests,
+            PendingRides pendingRides,
+            SeatHolds seatHolds,
+            RideBookingSequencer bookingSequencer,
+            OwnerRideRequestFeed ownerRideRequestFeed,
+            RideLocationFeed rideLocationFeed,
             OwnerRepository ownerRepository,
             CarRepository carRepository,
             DriverRepository driverRepository,
             RideRepository rideRepository
     ) {
-        this.rideRequests = rideRequests.orElse(null);
-        this.userRepository = userRepository;
+        this.principals = principals;
+        this.uniqueKeys = uniqueKeys;
+        this.rideRequests = rideRequests;
+        this.pendingRides = pendingRides;
+        this.seatHolds = seatHolds;
+        this.bookingSequencer = bookingSequencer;
+        this.ownerRideRequestFeed = ownerRideRequestFeed;
+        this.rideLocationFeed = rideLocationFeed;
         this.ownerRepository = ownerRepository;
         this.carRepository = carRepository;
         this.driverRepository = driverRepository;
@@ -68,19 +98,17 @@ public class OwnerService {
     public void register(String identifier, String voenRaw) {
         Voen voen = new Voen(voenRaw);
 
-        User user = userRepository
-                .findBy(IdentifierFactory.from(identifier))
-                .orElseThrow();
+        PrincipalContext principal = principals.resolve(identifier).orElseThrow();
+        UserID userID = principal.userID();
 
-        UserID userID = new UserID(user.id());
-
-        if (ownerRepository.isOwnerExists(userID))
+        if (principal.isOwner() || ownerRepository.isOwnerExists(userID))
             throw responseException(
                     HttpStatus.CONFLICT,
                     "Owner is already registered to this account"
             );
 
-        if (ownerRepository.isVoenExists(voen))
+        if (uniqueKeys.mightExist(Kind.VOEN, voen.value())
+                && ownerRepository.isVoenExists(voen))
             throw responseException(
                     HttpStatus.CONFLICT,
                     "Voen is already used"
@@ -95,27 +123,35 @@ public class OwnerService {
                                 "Unable to process your request at the moment. Please try again."
                         )
                 );
+
+        uniqueKeys.add(Kind.VOEN, voen.value());
+        principals.invalidate(userID);
     }
 
     @Transactional
     public void saveCar(String identifier, CarDTO carDTO) {
         required("carForm", carDTO);
 
-        User user = userRepository
-                .findBy(IdentifierFactory.from(identifier))
-                .orElseThrow();
-
-        UserID userID = new UserID(user.id());
+        PrincipalContext principal = principals.resolve(identifier).orElseThrow();
+        UserID userID = principal.userID();
 
-        if (!ownerRepository.isOwnerExists(userID))
+        if (!principal.isOwner())
             throw responseException(
                     HttpStatus.NOT_FOUND,
                     "Owner account is not found."
             );
 
+        LicensePlate licensePlate = new LicensePlate(carDTO.licensePlate());
+        if (uniqueKeys.mightExist(Kind.LICENSE_PLATE, licensePlate.value())
+                && carRepository.isLicenseTemplateExists(licensePlate))
+            throw responseException(
+                    HttpStatus.CONFLICT,
+                    "This license plate is already registered."
+            );
+
         Car car = Car.of(
                 userID,
-                new LicensePlate(carDTO.licensePlate()),
+                licensePlate,
                 new CarBrand(carDTO.carBrand()),
                 new CarModel(carDTO.carModel()),
                 new CarColor(carDTO.carColor()),
@@ -130,31 +166,97 @@ public class OwnerService {
                                 "Unable to process your request at the moment. Please try again."
                         )
                 );
+
+        uniqueKeys.add(Kind.LICENSE_PLATE, licensePlate.value());
     }
 
     @Transactional
     public void request(String identifier, RideRequestToDriver rideForm) {
         required("rideForm", rideForm);
 
-        User user = userRepository
-                .findBy(IdentifierFactory.from(identifier))
-                .orElseThrow();
-
-        UserID userID = new UserID(user.id());
+        PrincipalContext owner = ownerOf(identifier);
+        RideRequest rideRequest = rideForm.toRideRequest(owner.ownerID());
+        validateCar(owner, rideRequest);
 
-        Owner owner = ownerRepository
-                .findBy(userID)
+        Driver driver = driverRepository
+                .findBy(rideRequest.driverID())
                 .orElseThrow(() ->
                         responseException(
                                 HttpStatus.NOT_FOUND,
-                                "Owner account is not found."
+                                "Driver account is not found."
                         )
                 );
 
-        RideRequest rideRequest = rideForm.toRideRequest(owner.id());
+        if (!driver.isAvailable())
+            throw responseException(
+                    HttpStatus.CONFLICT,
+                    "Driver is not available."
+            );
+
+        send(() -> rideRequests.put(driver.id(), rideRequest));
+    }
+
+    @Transactional
+    public void broadcast(String identifier, List<UUID> driverIDs, RideRequestToDriver rideForm) {
+        required("rideForm", rideForm);
+        required("driverIDs", driverIDs);
+
+        Set<UUID> recipients = new LinkedHashSet<>(driverIDs);
+        if (recipients.isEmpty() || recipients.size() > RideRequestStore.MAX_RECIPIENTS)
+            throw responseException(
+                    HttpStatus.BAD_REQUEST,
+                    "A ride request can be sent to 1 to %d drivers.".formatted(RideRequestStore.MAX_RECIPIENTS)
+            );
+
+        PrincipalContext owner = ownerOf(identifier);
+        DriverID first = new DriverID(recipients.iterator().next());
+        RideRequest rideRequest = rideForm.toRideRequest(owner.ownerID(), first);
+        validateCar(owner, rideRequest);
+
+        List<DriverID> available = driverRepository
+                .findAllBy(recipients.stream().map(DriverID::new).toList())
+                .orElseThrow(RestUtil::unableToProcessRequestException)
+                .stream()
+                .filter(Driver::isAvailable)
+                .map(Driver::id)
+                .toList();
+
+        if (available.isEmpty())
+            throw responseException(
+                    HttpStatus.CONFLICT,
+                    "None of the selected drivers is available."
+            );
+
+        send(() -> rideRequests.broadcast(available, rideRequest));
+    }
 
+    public SseEmitter rideRequestOutcomes(String identifier) {
+        PrincipalContext owner = ownerOf(identifier);
+        return ownerRideRequestFeed.subscribe(owner.ownerID());
+    }
+
+    private PrincipalContext ownerOf(String identifier) {
+        PrincipalContext principal = principals.resolve(identifier).orElseThrow();
+        if (!principal.isOwner())
+            throw responseException(
+                    HttpStatus.NOT_FOUND,
+                    "Owner account is not found."
+            );
+
+        return principal;
+    }
+
+    private static void send(Runnable delivery) {
+        try {
+            delivery.run();
+        } catch (RejectedExecutionException e) {
+            throw responseException(HttpStatus.SERVICE_UNAVAILABLE, "Too many pending ride requests at the moment. Please try again.");
+        }
+    }
+
+    private void validateCar(PrincipalContext owner, RideRequest rideRequest) {
         Car car = carRepository
-                .findBy(new LicensePlate(rideForm.licensePlate()))
+                .findBy(rideRequest.licensePlate())
                 .orElseThrow(() ->
                         responseException(
                                 HttpStatus.NOT_FOUND,
@@ -162,7 +264,7 @@ public class OwnerService {
                         )
                 );
 
-        if (!car.owner().equals(userID))
+        if (!car.owner().equals(owner.userID()))
             throw responseException(
                     HttpStatus.FORBIDDEN,
                     "You are not the owner of the car or license plate is wrong."
@@ -173,86 +275,69 @@ public class OwnerService {
                     HttpStatus.CONFLICT,
                     "Selected car is already on the road."
             );
-
-        Driver driver = driverRepository
-                .findBy(new DriverID(rideForm.driverID()))
-                .orElseThrow(() ->
-                        responseException(
-                                HttpStatus.NOT_FOUND,
-                                "Driver account is not found."
-                        )
-                );
-
-        if (!driver.isAvailable())
-            throw responseException(
-                    HttpStatus.CONFLICT,
-                    "Driver is not available."
-            );
-
-        rideRequests.put(driver.id(), rideRequest);
     }
 
     @Transactional
     public void addRideRule(String identifier, RideRule rideRule, UUID rideUUID) {
-        Ride ride = validateAndRetrieveRide(identifier, rideUUID);
-        ride.addRideRule(rideRule);
-        rideRepository.updateRules(ride)
-                .orElseThrow(RestUtil::unableToProcessRequestException);
+        retryOnConflict(() -> {
+            Ride ride = validateAndRetrieveRide(identifier, rideUUID);
+            ride.addRideRule(rideRule);
+            written(rideRepository.updateRules(ride));
+        });
     }
 
     @Transactional
     public void removeRideRule(String identifier, RideRule rideRule, UUID rideUUID) {
-        Ride ride = validateAndRetrieveRide(identifier, rideUUID);
-        ride.removeRideRule(rideRule);
-        rideRepository.updateRules(ride)
-                .orElseThrow(RestUtil::unableToProcessRequestException);
+        retryOnConflict(() -> {
+            Ride ride = validateAndRetrieveRide(identifier, rideUUID);
+            ride.removeRideRule(rideRule);
+            written(rideRepository.updateRules(ride));
+        });
     }
 
     @Transactional
     public void startRide(String identifier, UUID rideUUID) {
-        Ride ride = validateAndRetrieveRide(identifier, rideUUID);
-        ride.start();
-        rideRepository.updateStatus(ride)
-                .orElseThrow(RestUtil::unableToProcessRequestException);
+        Ride ride = retryOnConflict(() -> {
+            Ride current = validateAndRetrieveRide(identifier, rideUUID);
+            current.start();
+            written(rideRepository.updateStatus(current));
+            return current;
+        });
+
+        bookingSequencer.evict(ride.id());
+        seatHolds.forget(ride.id());
+        pendingRides.put(ride);
     }
 
     @Transactional
     public void cancelRide(String identifier, UUID rideUUID) {
-        Ride ride = validateAndRetrieveRide(identifier, rideUUID);
-        ride.cancel();
-        rideRepository.updateStatus(ride)
-                .orElseThrow(RestUtil::unableToProcessRequestException);
+        Ride ride = retryOnConflict(() -> {
+            Ride current = validateAndRetrieveRide(identifier, rideUUID);
+            current.cancel();
+            written(rideRepository.updateStatus(current));
+            return current;
+        });
+
+        bookingSequencer.evict(ride.id());
+        seatHolds.forget(ride.id());
+        pendingRides.put(ride);
+        rideLocationFeed.close(ride.id());
     }
 
     @Transactional
     public void finishRide(String identifier, UUID rideUUID) {
-        Ride ride = validateAndRetrieveRide(identifier, rideUUID);
-        ride.finish();
-        rideRepository.updateStatus(ride)
-                .orElseThrow(RestUtil::unableToProcessRequestException);
+        retryOnConflict(() -> {
+            Ride ride = validateAndRetrieveRide(identifier, rideUUID);
+            ride.finish();
+            written(rideRepository.updateStatus(ride));
+        });
+
+        rideLocationFeed.close(new RideID(rideUUID));
     }
 
     @Transactional(readOnly = true)
     protected Ride validateAndRetrieveRide(String identifier, UUID rideUUID) {
-        User user = userRepository
-                .findBy(IdentifierFactory.from(identifier))
-                .orElseThrow(() ->
-                        responseException(
-                                HttpStatus.NOT_FOUND,
-                                "User not found"
-                        )
-                );
-
-        UserID userID = new UserID(user.id());
-
-        Owner owner = ownerRepository
-                .findBy(userID)
-                .orElseThrow(() ->
-                        responseException(
-                                HttpStatus.NOT_FOUND,
-                                "Owner account is not found."
-                        )
-                );
+        PrincipalContext owner = ownerOf(identifier);
 
         Ride ride = rideRepository
                 .findBy(new RideID(rideUUID))
@@ -265,7 +350,7 @@ public class OwnerService {
 
         boolean notAnOwnerOfThisRide = ride.rideOwner()
                 .ownerID()
-                .map(ownerId -> !ownerId.equals(owner.id()))
+                .map(ownerId -> !ownerId.equals(owner.ownerID()))
                 .orElse(true);
 
         if (notAnOwnerOfThisRide)
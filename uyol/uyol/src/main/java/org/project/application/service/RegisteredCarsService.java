@@ -8,9 +8,7 @@ import org.project.application.dto.fleet.CarDTO;
 import org.project.domain.fleet.repositories.CarRepository;
 import org.project.domain.shared.value_objects.Pageable;
 import org.project.domain.shared.value_objects.UserID;
-import org.project.domain.user.entities.User;
-import org.project.domain.user.factories.IdentifierFactory;
-import org.project.domain.user.repositories.UserRepository;
+import org.project.infrastructure.cache.PrincipalContexts;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -20,24 +18,22 @@ import org.springframework.transaction.annotation.Transactional;
 public class RegisteredCarsService {
 
     private final CarRepository carRepository;
-    private final UserRepository userRepository;
+    private final PrincipalContexts principals;
 
     public RegisteredCarsService(
             CarRepository carRepository,
-            UserRepository userRepository
+            PrincipalContexts principals
     ) {
         this.carRepository = carRepository;
-        this.userRepository = userRepository;
+        this.principals = principals;
     }
 
     @Transactional(readOnly = true)
     public List<CarDTO> registeredCars(String identifier, Pageable page) {
-        User user = userRepository
-                .findBy(IdentifierFactory.from(identifier))
-                .orElseThrow();
+        UserID userID = principals.resolve(identifier).orElseThrow().userID();
 
         return carRepository
-                .pageOf(page, new UserID(user.id()))
+                .pageOf(page, userID)
                 .orElseThrow(() ->
                         responseException(
                                 HttpStatus.NOT_FOUND,
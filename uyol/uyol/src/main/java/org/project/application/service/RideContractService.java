@@ -6,40 +6,40 @@ import java.util.List;
 import java.util.UUID;
 
 import org.project.application.dto.ride.RideContractDTO;
-import org.project.application.pagination.PageRequest;
 import org.project.domain.ride.entities.RideContract;
 import org.project.domain.ride.repositories.RideContractRepository;
 import org.project.domain.ride.value_object.RideContractID;
 import org.project.domain.ride.value_object.RideID;
 import org.project.domain.shared.value_objects.Pageable;
 import org.project.domain.shared.value_objects.UserID;
-import org.project.domain.user.entities.User;
-import org.project.domain.user.factories.IdentifierFactory;
-import org.project.domain.user.repositories.UserRepository;
+import org.project.infrastructure.cache.PrincipalContexts;
+import org.project.infrastructure.push.RideLocationFeed;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @Service
 public class RideContractService {
 
-    private final UserRepository userRepository;
+    private final PrincipalContexts principals;
     private final RideContractRepository contractsRepository;
+    private final RideLocationFeed rideLocationFeed;
 
     public RideContractService(
-            UserRepository userRepository,
-            RideContractRepository contractsRepository
+            PrincipalContexts principals,
+            RideContractRepository contractsRepository,
+            RideLocationFeed rideLocationFeed
     ) {
-        this.userRepository = userRepository;
+        this.principals = principals;
         this.contractsRepository = contractsRepository;
+        this.rideLocationFeed = rideLocationFeed;
     }
 
     @Transactional(readOnly = true)
     public RideContractDTO of(String identifier, UUID rideContractID) {
-        User user = userRepository
-                .findBy(IdentifierFactory.from(identifier))
-                .orElseThrow();
+        UserID userID = principals.resolve(identifier).orElseThrow().userID();
 
         RideContract rideContract = contractsRepository
                 .findBy(new RideContractID(rideContractID))
@@ -47,7 +47,7 @@ public class RideContractService {
                         responseException(HttpStatus.BAD_REQUEST, "Cannot find ride contract.")
                 );
 
-        boolean notOwnerOfContract = !rideContract.userID().value().equals(user.id());
+        boolean notOwnerOfContract = !rideContract.userID().value().equals(userID.value());
         if (notOwnerOfContract)
             throw responseException(
                     HttpStatus.FORBIDDEN,
@@ -63,9 +63,7 @@ public class RideContractService {
             UUID rideID,
             Pageable pageable
     ) {
-        User user = userRepository
-                .findBy(IdentifierFactory.from(identifier))
-                .orElseThrow();
+        UserID userID = principals.resolve(identifier).orElseThrow().userID();
 
         List<RideContract> rideContracts = contractsRepository
                 .findBy(new RideID(rideID), pageable)
@@ -78,7 +76,7 @@ public class RideContractService {
 
         rideContracts.forEach(rideContract -> {
             boolean notOwnerOfContract =
-                    !rideContract.userID().value().equals(user.id());
+                    !rideContract.userID().value().equals(userID.value());
             if (notOwnerOfContract)
                 throw responseException(
                         HttpStatus.FORBIDDEN,
@@ -95,14 +93,12 @@ public class RideContractService {
     @Transactional(readOnly = true)
     public List<RideContractDTO> ofUser(
             String identifier,
-            PageRequest pageRequest
+            Pageable page
     ) {
-        User user = userRepository
-                .findBy(IdentifierFactory.from(identifier))
-                .orElseThrow();
+        UserID userID = principals.resolve(identifier).orElseThrow().userID();
 
         return contractsRepository
-                .findBy(new UserID(user.id()), pageRequest)
+                .findBy(userID, page)
                 .orElseThrow(() ->
                         responseException(
                                 HttpStatus.NOT_FOUND,
@@ -113,4 +109,19 @@ public class RideContractService {
                 .map(RideContractDTO::from)
                 .toList();
     }
+
+    /** Streams the car's position to a passenger holding a contract on the ride. */
+    @Transactional(readOnly = true)
+    public SseEmitter locationStream(String identifier, UUID rideUUID) {
+        UserID userID = principals.resolve(identifier).orElseThrow().userID();
+
+        RideID rideID = new RideID(rideUUID);
+        if (!contractsRepository.isExists(userID, rideID))
+            throw responseException(
+                    HttpStatus.FORBIDDEN,
+                    "You are not a passenger of this ride."
+            );
+
+        return rideLocationFeed.subscribe(rideID);
+    }
 }
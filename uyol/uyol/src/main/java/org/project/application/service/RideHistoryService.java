@@ -6,16 +6,12 @@ import static org.project.application.util.RestUtil.responseException;
 import java.util.List;
 
 import org.project.application.dto.ride.RideDTO;
-import org.project.domain.fleet.entities.Driver;
-import org.project.domain.fleet.entities.Owner;
-import org.project.domain.fleet.repositories.DriverRepository;
-import org.project.domain.fleet.repositories.OwnerRepository;
 import org.project.domain.ride.repositories.RideRepository;
+import org.project.domain.shared.value_objects.DriverID;
+import org.project.domain.shared.value_objects.OwnerID;
 import org.project.domain.shared.value_objects.Pageable;
 import org.project.domain.shared.value_objects.UserID;
-import org.project.domain.user.entities.User;
-import org.project.domain.user.factories.IdentifierFactory;
-import org.project.domain.user.repositories.UserRepository;
+import org.project.infrastructure.cache.PrincipalContexts;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -25,32 +21,24 @@ import org.springframework.transaction.annotation.Transactional;
 public class RideHistoryService {
 
     private final RideRepository rideRepository;
-    private final UserRepository userRepository;
-    private final OwnerRepository ownerRepository;
-    private final DriverRepository driverRepository;
+    private final PrincipalContexts principals;
 
     public RideHistoryService(
             RideRepository rideRepository,
-            UserRepository userRepository,
-            DriverRepository driverRepository,
-            OwnerRepository ownerRepository
+            PrincipalContexts principals
     ) {
         this.rideRepository = rideRepository;
-        this.userRepository = userRepository;
-        this.driverRepository = driverRepository;
-        this.ownerRepository = ownerRepository;
+        this.principals = principals;
     }
 
     @Transactional(readOnly = true)
     public List<RideDTO> userRides(String identifier, Pageable page) {
         required("page", page);
 
-        User user = userRepository
-                .findBy(IdentifierFactory.from(identifier))
-                .orElseThrow();
+        UserID userID = principals.resolve(identifier).orElseThrow().userID();
 
         return rideRepository
-                .pageOf(new UserID(user.id()), page)
+                .pageOf(userID, page)
                 .orElseThrow(() ->
                         responseException(
                                 HttpStatus.NOT_FOUND,
@@ -63,12 +51,9 @@ public class RideHistoryService {
     public List<RideDTO> driverRides(String identifier, Pageable page) {
         required("page", page);
 
-        User user = userRepository
-                .findBy(IdentifierFactory.from(identifier))
-                .orElseThrow();
-
-        Driver driver = driverRepository
-                .findBy(new UserID(user.id()))
+        DriverID driverID = principals.resolve(identifier)
+                .orElseThrow()
+                .driver()
                 .orElseThrow(() ->
                         responseException(
                                 HttpStatus.NOT_FOUND,
@@ -77,7 +62,7 @@ public class RideHistoryService {
                 );
 
         return rideRepository
-                .pageOf(driver.id(), page)
+                .pageOf(driverID, page)
                 .orElseThrow(() ->
                         responseException(
                                 HttpStatus.NOT_FOUND,
@@ -90,12 +75,9 @@ public class RideHistoryService {
     public List<RideDTO> ownerRides(String identifier, Pageable page) {
         required("page", page);
 
-        User user = userRepository
-                .findBy(IdentifierFactory.from(identifier))
-                .orElseThrow();
-
-        Owner owner = ownerRepository
-                .findBy(new UserID(user.id()))
+        OwnerID ownerID = principals.resolve(identifier)
+                .orElseThrow()
+                .owner()
                 .orElseThrow(() ->
                         responseException(
                                 HttpStatus.NOT_FOUND,
@@ -104,7 +86,7 @@ public class RideHistoryService {
                 );
 
         return rideRepository
-                .pageOf(owner.id(), page)
+                .pageOf(ownerID, page)
                 .orElseThrow(() ->
                         responseException(
                                 HttpStatus.NOT_FOUND,
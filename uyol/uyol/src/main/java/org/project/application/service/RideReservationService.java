@@ -3,80 +3,198 @@ package org.project.application.service;
 import static org.project.application.util.RestUtil.required;
 import static org.project.application.util.RestUtil.responseException;
 
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
 import org.project.application.dto.ride.BookingForm;
 import org.project.application.dto.ride.RideContractDTO;
+import org.project.application.dto.ride.SeatHoldDTO;
 import org.project.application.util.RestUtil;
-import org.project.domain.fleet.entities.Driver;
-import org.project.domain.fleet.repositories.DriverRepository;
 import org.project.domain.ride.entities.Ride;
 import org.project.domain.ride.entities.RideContract;
 import org.project.domain.ride.repositories.RideContractRepository;
 import org.project.domain.ride.repositories.RideRepository;
 import org.project.domain.ride.value_object.BookedSeats;
 import org.project.domain.ride.value_object.RideID;
+import org.project.domain.shared.exceptions.DomainException;
+import org.project.domain.shared.exceptions.IllegalDomainStateException;
+import org.project.domain.shared.value_objects.DriverID;
 import org.project.domain.shared.value_objects.UserID;
-import org.project.domain.user.entities.User;
-import org.project.domain.user.factories.IdentifierFactory;
-import org.project.domain.user.repositories.UserRepository;
-
+import org.project.infrastructure.cache.PrincipalContexts;
+import org.project.infrastructure.cache.SeatHolds;
+import org.project.infrastructure.concurrency.RatingAggregator;
+import org.project.infrastructure.concurrency.RideBookingSequencer;
+import org.project.infrastructure.push.RideSeatFeed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
 public class RideReservationService {
 
-    private final UserRepository userRepository;
+    private static final Logger log = LoggerFactory.getLogger(RideReservationService.class);
+
+    private final SeatHolds seatHolds;
+    private final RatingAggregator ratingAggregator;
+    private final RideBookingSequencer bookingSequencer;
+    private final RideSeatFeed rideSeatFeed;
+    private final PrincipalContexts principals;
     private final RideRepository rideRepository;
-    private final DriverRepository driverRepository;
     private final RideContractRepository rideContractRepository;
 
     public RideReservationService(
-            UserRepository userRepository,
+            SeatHolds seatHolds,
+            RatingAggregator ratingAggregator,
+            RideBookingSequencer bookingSequencer,
+            RideSeatFeed rideSeatFeed,
+            PrincipalContexts principals,
             RideRepository rideRepository,
-            DriverRepository driverRepository,
             RideContractRepository rideContractRepository
     ) {
-        this.userRepository = userRepository;
+        this.seatHolds = seatHolds;
+        this.ratingAggregator = ratingAggregator;
+        this.bookingSequencer = bookingSequencer;
+        this.rideSeatFeed = rideSeatFeed;
+        this.principals = principals;
         this.rideRepository = rideRepository;
-        this.driverRepository = driverRepository;
         this.rideContractRepository = rideContractRepository;
     }
 
-    @Transactional
     public RideContractDTO book(String identifier, BookingForm bookingForm) {
         required("bookingForm", bookingForm);
 
-        User user = userRepository
-                .findBy(IdentifierFactory.from(identifier))
-                .orElseThrow();
-
+        UserID userID = principals.resolve(identifier).orElseThrow().userID();
         RideID rideID = new RideID(bookingForm.rideID());
 
-        Ride ride = rideRepository.findBy(rideID)
-                .orElseThrow(() ->
-                        responseException(HttpStatus.BAD_REQUEST, "This ride does not exist.")
-                );
+        BookedSeats bookedSeats = new BookedSeats(bookingForm.bookedSeats());
+
+        SeatHolds.Hold claim;
+        try {
+            claim = seatHolds
+                    .claimForBooking(rideID, userID, bookedSeats)
+                    .orElseThrow(() ->
+                            responseException(HttpStatus.CONFLICT, "Some of the selected seats are already taken.")
+                    );
+        } catch (DataAccessException e) {
+            // holds only spare checkouts a lost race; the ride_seat key still refuses a double booking
+            log.warn("Seat holds are unavailable, booking ride {} without them", rideID.value(), e);
+            return RideContractDTO.from(commit(rideID, userID, bookedSeats));
+        }
+
+        return settle(claim);
+    }
 
-        RideContract rideContract = ride.book(
-                new UserID(user.id()),
-                new BookedSeats(bookingForm.bookedSeats())
-        );
+    /* ================= SEAT HOLDS ================= */
 
-        rideContractRepository.save(rideContract)
-                .orElseThrow(RestUtil::unableToProcessRequestException);
+    public SeatHoldDTO hold(String identifier, BookingForm bookingForm) {
+        required("bookingForm", bookingForm);
+
+        UserID userID = principals.resolve(identifier).orElseThrow().userID();
+
+        try {
+            SeatHolds.Hold hold = seatHolds
+                    .hold(
+                            new RideID(bookingForm.rideID()),
+                            userID,
+                            new BookedSeats(bookingForm.bookedSeats())
+                    )
+                    .orElseThrow(() ->
+                            responseException(HttpStatus.CONFLICT, "Some of the selected seats are already taken.")
+                    );
+
+            return new SeatHoldDTO(
+                    hold.id(),
+                    hold.rideID().value().toString(),
+                    hold.bookedSeats().bookedSeats(),
+                    hold.expiresAt()
+            );
+        } catch (DataAccessException e) {
+            throw seatHoldsUnavailable();
+        }
+    }
 
-        rideRepository.updateSeats(ride)
-                .orElseThrow(RestUtil::unableToProcessRequestException);
+    public RideContractDTO confirmHold(String identifier, RideID rideID, UUID holdID) {
+        SeatHolds.Hold hold = ownHold(identifier, rideID, holdID);
+
+        try {
+            if (!seatHolds.claim(hold))
+                throw responseException(HttpStatus.GONE, "This hold has expired.");
+        } catch (DataAccessException e) {
+            throw seatHoldsUnavailable();
+        }
+
+        return settle(hold);
+    }
 
+    public void releaseHold(String identifier, RideID rideID, UUID holdID) {
+        seatHolds.release(ownHold(identifier, rideID, holdID));
+    }
+
+    /** Books the seats of a claimed hold, marking them booked or giving them back. */
+    private RideContractDTO settle(SeatHolds.Hold hold) {
+        RideContract rideContract;
+        try {
+            rideContract = commit(hold.rideID(), hold.userID(), hold.bookedSeats());
+        } catch (RuntimeException e) {
+            seatHolds.release(hold);
+            seatHolds.forget(hold.rideID());
+            throw e;
+        }
+
+        seatHolds.confirmed(hold);
         return RideContractDTO.from(rideContract);
     }
 
-    @Transactional
+    private SeatHolds.Hold ownHold(String identifier, RideID rideID, UUID holdID) {
+        UserID userID = principals.resolve(identifier).orElseThrow().userID();
+
+        SeatHolds.Hold hold;
+        try {
+            hold = seatHolds.find(rideID, holdID.toString())
+                    .orElseThrow(() -> responseException(HttpStatus.GONE, "This hold has expired."));
+        } catch (DataAccessException e) {
+            throw seatHoldsUnavailable();
+        }
+
+        if (!hold.userID().value().equals(userID.value()))
+            throw responseException(HttpStatus.FORBIDDEN, "This hold belongs to another user.");
+
+        return hold;
+    }
+
+    private RideContract commit(RideID rideID, UserID userID, BookedSeats bookedSeats) {
+        RideContract rideContract;
+        try {
+            rideContract = bookingSequencer.book(rideID, userID, bookedSeats);
+        } catch (IllegalDomainStateException e) {
+            throw responseException(HttpStatus.CONFLICT, e.getMessage());
+        } catch (DomainException e) {
+            throw e;
+        } catch (RejectedExecutionException e) {
+            throw responseException(HttpStatus.SERVICE_UNAVAILABLE, "Too many bookings for this ride at the moment. Please try again.");
+        } catch (RuntimeException e) {
+            throw RestUtil.unableToProcessRequestException();
+        }
+
+        rideSeatFeed.booked(rideContract);
+        return rideContract;
+    }
+
+    private static ResponseStatusException seatHoldsUnavailable() {
+        return responseException(HttpStatus.SERVICE_UNAVAILABLE, "Seat holds are unavailable at the moment. Please try again.");
+    }
+
+    /* ================= RATING ================= */
+
+    /** Validates the rating and queues it; the driver row is updated by the next aggregator flush. */
+    @Transactional(readOnly = true)
     public void rateDriver(String identifier, RideID rideID, int score) {
-        User user = userRepository
-                .findBy(IdentifierFactory.from(identifier))
-                .orElseThrow();
+        UserID userID = principals.resolve(identifier).orElseThrow().userID();
 
         Ride ride = rideRepository.findBy(rideID)
                 .orElseThrow(() ->
@@ -89,26 +207,20 @@ public class RideReservationService {
                     "You can’t rate the driver until the ride is finished."
             );
 
-        if (!rideContractRepository.isExists(new UserID(user.id()), ride.id()))
+        if (!rideContractRepository.isExists(userID, ride.id()))
             throw responseException(
                     HttpStatus.FORBIDDEN,
                     "You weren’t a part of this ride"
             );
 
-        Driver driver = driverRepository
-                .findBy(ride.rideOwner().driverID())
-                .orElseThrow(RestUtil::unableToProcessRequestException);
-
-        boolean selfRating = driver.id().value().equals(user.id());
+        DriverID driverID = ride.rideOwner().driverID();
+        boolean selfRating = driverID.value().equals(userID.value());
         if (selfRating)
             throw responseException(
                     HttpStatus.BAD_REQUEST,
                     "You cannot rate yourself"
             );
 
-        driver.rate(score);
-
-        driverRepository.updateRating(driver)
-                .orElseThrow(RestUtil::unableToProcessRequestException);
+        ratingAggregator.add(driverID, score);
     }
 }
@@ -13,7 +13,9 @@ import org.project.domain.fleet.repositories.OwnerRepository;
 import org.project.domain.user.entities.User;
 import org.project.domain.user.factories.IdentifierFactory;
 import org.project.domain.user.repositories.UserRepository;
+import org.project.domain.user.value_objects.PrincipalContext;
 import org.project.domain.user.value_objects.ProfilePicture;
+import org.project.infrastructure.cache.PrincipalContexts;
 import org.project.infrastructure.files.ProfilePictureRepository;
 import org.project.infrastructure.files.StreamUtils;
 
@@ -24,17 +26,20 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class UserProfileService {
 
+    private final PrincipalContexts principals;
     private final UserRepository userRepository;
     private final OwnerRepository ownerRepository;
     private final DriverRepository driverRepository;
     private final ProfilePictureRepository pictureRepository;
 
     public UserProfileService(
+            PrincipalContexts principals,
             UserRepository userRepository,
             OwnerRepository ownerRepository,
             DriverRepository driverRepository,
             ProfilePictureRepository pictureRepository
     ) {
+        this.principals = principals;
         this.userRepository = userRepository;
         this.ownerRepository = ownerRepository;
         this.driverRepository = driverRepository;
@@ -43,16 +48,18 @@ public class UserProfileService {
 
     @Transactional(readOnly = true)
     public UserProfileDTO of(String identifier) {
+        PrincipalContext principal = principals.resolve(identifier).orElseThrow();
+
         User user = userRepository
-                .findBy(IdentifierFactory.from(identifier))
+                .findBy(principal.userID().value())
                 .orElseThrow();
 
-        Driver driver = driverRepository
-                .findBy(user.userID())
+        Driver driver = !principal.isDriver() ? null : driverRepository
+                .findBy(principal.userID())
                 .orElse(null);
 
-        Owner owner = ownerRepository
-                .findBy(user.userID())
+        Owner owner = !principal.isOwner() ? null : ownerRepository
+                .findBy(principal.userID())
                 .orElse(null);
 
         return UserProfileDTO.from(user, driver, owner);
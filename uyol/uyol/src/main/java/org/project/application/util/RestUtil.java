@@ -1,16 +1,31 @@
 package org.project.application.util;
 
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 import org.project.application.dto.common.ErrorMessage;
+import org.project.domain.shared.containers.Result;
+import org.project.domain.shared.exceptions.ConcurrentUpdateException;
+import org.project.domain.shared.value_objects.PageCursor;
+import org.project.domain.shared.value_objects.Pageable;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.server.ResponseStatusException;
 
 public final class RestUtil {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    public static final int MAX_CONFLICT_ATTEMPTS = 3;
+
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
     private RestUtil() {
@@ -43,4 +58,43 @@ public final class RestUtil {
                 "Unable to process your request at the moment. Please try again."
         );
     }
+
+    /** Re-runs a read-modify-write whose versioned update lost a race, at most MAX_CONFLICT_ATTEMPTS times. */
+    public static <T> T retryOnConflict(Supplier<T> attempt) {
+        for (int i = 1; ; i++) {
+            try {
+                return attempt.get();
+            } catch (ConcurrentUpdateException e) {
+                if (i >= MAX_CONFLICT_ATTEMPTS)
+                    throw responseException(
+                            HttpStatus.CONFLICT,
+                            "The resource was changed by another request. Please try again."
+                    );
+            }
+        }
+    }
+
+    public static void retryOnConflict(Runnable attempt) {
+        retryOnConflict(() -> {
+            attempt.run();
+            return null;
+        });
+    }
+
+    /** Unwraps a repository write: a lost version race propagates to retryOnConflict, anything else is a 500. */
+    public static <V> V written(Result<V, Throwable> result) {
+        if (result.success()) return result.value();
+        if (result.throwable() instanceof ConcurrentUpdateException conflict) throw conflict;
+        throw unableToProcessRequestException();
+    }
+
+    /** Full pages carry the cursor of their last row, a short page means there is nothing after it. */
+    public static <T> ResponseEntity<List<T>> page(List<T> items, Pageable page, Function<T, PageCursor> cursorOf) {
+        if (items.isEmpty() || items.size() < page.limit())
+            return ResponseEntity.ok(items);
+
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, cursorOf.apply(items.getLast()).encode())
+                .body(items);
+    }
 }
@@ -20,6 +20,7 @@ public class Driver {
   private DriverStatus status;
   private TotalRides rides;
   private DriverRating rating;
+  private final long version;
 
   private Driver(
           DriverID id,
@@ -28,7 +29,8 @@ public class Driver {
           Dates dates,
           DriverStatus status,
           TotalRides rides,
-          DriverRating rating) {
+          DriverRating rating,
+          long version) {
 
     this.id = id;
     this.userID = userID;
@@ -37,6 +39,7 @@ public class Driver {
     this.status = status;
     this.rides = rides;
     this.rating = rating;
+    this.version = version;
   }
 
   public static Driver of(UserID userID, DriverLicense license) {
@@ -44,7 +47,7 @@ public class Driver {
     required("licenseNumber", license);
 
     return new Driver(new DriverID(UUID.randomUUID()), userID, license,
-            Dates.defaultDates(), DriverStatus.AVAILABLE, TotalRides.defaultRides(), new NoRating());
+            Dates.defaultDates(), DriverStatus.AVAILABLE, TotalRides.defaultRides(), new NoRating(), 0L);
   }
 
   public static Driver fromRepository(
@@ -54,9 +57,10 @@ public class Driver {
       Dates dates,
       DriverStatus status,
       TotalRides rides,
-      DriverRating rating) {
+      DriverRating rating,
+      long version) {
 
-    return new Driver(id, userID, license, dates, status, rides, rating);
+    return new Driver(id, userID, license, dates, status, rides, rating, version);
   }
 
   public DriverID id() {
@@ -108,6 +112,10 @@ public class Driver {
     return rating;
   }
 
+  public long version() {
+    return version;
+  }
+
   public DriverRating rate(int score) {
     return switch (rating) {
       case NoRating nr -> this.rating = Rated.firstRate(score);
@@ -23,4 +23,7 @@ public interface CarRepository {
   Result<List<CarDTO>, Throwable> pageOf(Pageable pageable, UserID userID);
 
   boolean isLicenseTemplateExists(LicensePlate license);
+
+  /** License plates in index order after the given one, to seed membership filters. */
+  Result<List<String>, Throwable> licensePlatesAfter(String after, int limit);
 }
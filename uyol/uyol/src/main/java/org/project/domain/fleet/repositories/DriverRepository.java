@@ -1,10 +1,11 @@
 package org.project.domain.fleet.repositories;
 
 import org.project.application.dto.fleet.DriverDTO;
-import org.project.application.pagination.PageRequest;
 import org.project.domain.fleet.entities.Driver;
 import org.project.domain.fleet.value_objects.DriverLicense;
+import org.project.domain.fleet.value_objects.RatingDelta;
 import org.project.domain.shared.value_objects.DriverID;
+import org.project.domain.shared.value_objects.Pageable;
 import org.project.domain.shared.value_objects.UserID;
 import org.project.domain.shared.containers.Result;
 
@@ -22,13 +23,22 @@ public interface DriverRepository {
 
     Result<Integer, Throwable> updateRating(Driver driver);
 
+    Result<Integer, Throwable> addRating(RatingDelta ratingDelta);
+
+    Result<Integer, Throwable> addRatings(List<RatingDelta> ratingDeltas);
+
     Result<Driver, Throwable> findBy(DriverID driverID);
 
     Result<Driver, Throwable> findBy(UserID userID);
 
-    Result<List<DriverDTO>, Throwable> page(PageRequest page);
+    Result<List<Driver>, Throwable> findAllBy(List<DriverID> driverIDs);
+
+    Result<List<DriverDTO>, Throwable> page(Pageable page);
 
     boolean isLicenseExists(DriverLicense license);
 
     boolean isDriverExists(UserID userID);
+
+    /** Driver licenses in index order after the given one, to seed membership filters. */
+    Result<List<String>, Throwable> licensesAfter(String after, int limit);
 }
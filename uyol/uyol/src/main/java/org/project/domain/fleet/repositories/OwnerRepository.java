@@ -1,5 +1,7 @@
 package org.project.domain.fleet.repositories;
 
+import java.util.List;
+
 import org.project.domain.fleet.entities.Owner;
 import org.project.domain.fleet.value_objects.Voen;
 import org.project.domain.shared.value_objects.OwnerID;
@@ -17,4 +19,7 @@ public interface OwnerRepository {
     boolean isOwnerExists(UserID userID);
 
     boolean isVoenExists(Voen voen);
+
+    /** VOENs in index order after the given one, to seed membership filters. */
+    Result<List<String>, Throwable> voensAfter(String after, int limit);
 }
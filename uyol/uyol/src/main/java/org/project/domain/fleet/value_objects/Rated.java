@@ -23,7 +23,7 @@ public record Rated(int totalReviews, int sumOfScores) implements DriverRating {
         return new Rated(totalReviews + 1, sumOfScores + rate);
     }
 
-    private static void validateRate(int rate) {
+    static void validateRate(int rate) {
         if (rate < 1)
             throw new IllegalDomainArgumentException("Rate should not be bellow 1");
         if (rate > 5)
@@ -0,0 +1,43 @@
+package org.project.domain.fleet.value_objects;
+
+import static org.project.domain.shared.util.Utils.required;
+
+import java.time.LocalDateTime;
+
+import org.project.domain.shared.exceptions.IllegalDomainArgumentException;
+import org.project.domain.shared.value_objects.DriverID;
+
+/**
+ * Reviews and scores to add to a driver's rating, one rating or several coalesced ones.
+ * {@code ratedAt} is the time of the latest rating it holds.
+ */
+public record RatingDelta(DriverID driverID, int reviews, int sumOfScores, LocalDateTime ratedAt) {
+    public RatingDelta {
+        required("driverID", driverID);
+        required("ratedAt", ratedAt);
+
+        if (reviews < 1)
+            throw new IllegalDomainArgumentException("Rating delta should contain at least one review");
+
+        if (sumOfScores < reviews || sumOfScores > reviews * 5)
+            throw new IllegalDomainArgumentException("Sum of scores does not match the count of reviews");
+    }
+
+    public static RatingDelta of(DriverID driverID, int rate, LocalDateTime ratedAt) {
+        Rated.validateRate(rate);
+
+        return new RatingDelta(driverID, 1, rate, ratedAt);
+    }
+
+    public RatingDelta plus(RatingDelta other) {
+        if (!driverID.equals(other.driverID))
+            throw new IllegalDomainArgumentException("Rating deltas of different drivers cannot be merged");
+
+        return new RatingDelta(
+                driverID,
+                reviews + other.reviews,
+                sumOfScores + other.sumOfScores,
+                ratedAt.isAfter(other.ratedAt) ? ratedAt : other.ratedAt
+        );
+    }
+}
@@ -31,6 +31,7 @@ public class Ride {
   private final Dates dates;
   private final boolean hasActiveContract;
   private Fee fee;
+  private final long version;
 
   private Ride(
           RideID id,
@@ -45,7 +46,8 @@ public class Ride {
           Set<RideRule> rideRules,
           Dates dates,
           boolean hasActiveContract,
-          Fee fee) {
+          Fee fee,
+          long version) {
 
     this.id = id;
     this.carID = carID;
@@ -60,6 +62,7 @@ public class Ride {
     this.dates = dates;
     this.hasActiveContract = hasActiveContract;
     this.fee = fee;
+    this.version = version;
   }
 
   public static Ride of(
@@ -84,7 +87,7 @@ public class Ride {
       throw new IllegalDomainArgumentException("Too many rules for ride, don't be so boring");
 
     return new Ride(RideID.newID(), carID, rideOwner, route, rideTime, price,
-            seatMap, RideStatus.PENDING, rideDesc, rideRules, Dates.defaultDates(), false, Fee.zero());
+            seatMap, RideStatus.PENDING, rideDesc, rideRules, Dates.defaultDates(), false, Fee.zero(), 0L);
   }
 
   public static Ride fromRepository(
@@ -100,9 +103,10 @@ public class Ride {
           Set<RideRule> rideRules,
           Dates dates,
           boolean hasActiveContract,
-          Fee fee) {
+          Fee fee,
+          long version) {
 
-    return new Ride(id, carID, rideOwner, route, rideTime, price, seatMap, status, rideDesc, rideRules, dates, hasActiveContract, fee);
+    return new Ride(id, carID, rideOwner, route, rideTime, price, seatMap, status, rideDesc, rideRules, dates, hasActiveContract, fee, version);
   }
 
   public RideID id() {
@@ -137,14 +141,10 @@ public class Ride {
     if (this.status != RideStatus.PENDING)
       throw new IllegalDomainArgumentException("Cannot add passenger when ride is already on the road");
 
-    SeatMap newSeatsState = null;
-    BigDecimal total = BigDecimal.ZERO;
-    for (PassengerSeat bookedSeat : bookedSeats.bookedSeats()) {
-      newSeatsState = seatMap.occupy(bookedSeat.index(), bookedSeat.status());
-      total = total.add(price.amount());
-    }
+    required("bookedSeats", bookedSeats);
 
-    this.seatMap = newSeatsState;
+    this.seatMap = seatMap.occupyAll(bookedSeats);
+    BigDecimal total = price.amount().multiply(BigDecimal.valueOf(bookedSeats.size()));
     this.fee = fee.calculateFeeForBooking(new Price(total));
     return RideContract.of(userID, id, price, bookedSeats);
   }
@@ -217,6 +217,11 @@ public class Ride {
     return fee;
   }
 
+  /** Row version this instance was read at; updates only apply if it is still current. */
+  public long version() {
+    return version;
+  }
+
   public boolean isModifiable() {
     return status == RideStatus.PENDING;
   }
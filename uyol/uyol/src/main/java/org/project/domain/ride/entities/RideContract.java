@@ -7,6 +7,7 @@ import org.project.domain.ride.value_object.RideID;
 import org.project.domain.shared.value_objects.UserID;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 import static org.project.domain.shared.util.Utils.required;
@@ -17,13 +18,16 @@ public class RideContract {
     private final RideID rideID;
     private final Price pricePerSeat;
     private final BookedSeats bookedSeats;
+    private final LocalDateTime createdAt;
 
-    private RideContract(RideContractID id, UserID userID, RideID rideID, Price pricePerSeat, BookedSeats bookedSeats) {
+    private RideContract(RideContractID id, UserID userID, RideID rideID, Price pricePerSeat,
+                         BookedSeats bookedSeats, LocalDateTime createdAt) {
         this.id = id;
         this.userID = userID;
         this.rideID = rideID;
         this.pricePerSeat = pricePerSeat;
         this.bookedSeats = bookedSeats;
+        this.createdAt = createdAt;
     }
 
     static RideContract of(UserID userID, RideID rideID, Price pricePerSeat, BookedSeats bookedSeats) {
@@ -32,12 +36,12 @@ public class RideContract {
         required("pricePerSeat", pricePerSeat);
         required("bookedSeats", bookedSeats);
 
-        return new RideContract(RideContractID.newID(), userID, rideID, pricePerSeat, bookedSeats);
+        return new RideContract(RideContractID.newID(), userID, rideID, pricePerSeat, bookedSeats, LocalDateTime.now());
     }
 
     public static RideContract fromRepository(RideContractID id, UserID userID, RideID rideId,
-                                              Price pricePerSeat, BookedSeats bookedSeats) {
-        return new RideContract(id, userID, rideId, pricePerSeat, bookedSeats);
+                                              Price pricePerSeat, BookedSeats bookedSeats, LocalDateTime createdAt) {
+        return new RideContract(id, userID, rideId, pricePerSeat, bookedSeats, createdAt);
     }
 
     public RideContractID id() {
@@ -64,6 +68,10 @@ public class RideContract {
         return bookedSeats;
     }
 
+    public LocalDateTime createdAt() {
+        return createdAt;
+    }
+
     public boolean hasSeat(int seatIndex) {
         return bookedSeats.bookedSeats().stream().anyMatch(s -> s.index() == seatIndex);
     }
@@ -43,4 +43,9 @@ public record RideRequest(
         if (rideRules.size() > MAX_RIDE_RULES)
             throw new IllegalDomainArgumentException("Too many ride rules");
     }
+
+    /** The same request addressed to another driver, as used when it is broadcast. */
+    public RideRequest withDriver(DriverID driverID) {
+        return new RideRequest(id, driverID, ownerID, licensePlate, route, rideTime, price, seatMap, rideDesc, rideRules, createdAt);
+    }
 }
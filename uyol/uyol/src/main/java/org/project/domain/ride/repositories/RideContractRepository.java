@@ -13,6 +13,9 @@ public interface RideContractRepository {
 
     Result<Integer, Throwable> save(RideContract rideContract);
 
+    /** Reserves the booked seats and stores the contracts in one transaction: all of them land or none does. */
+    Result<Integer, Throwable> book(List<RideContract> rideContracts);
+
     Result<RideContract, Throwable> findBy(RideContractID rideContractID);
 
     Result<List<RideContract>, Throwable> findBy(RideID rideID, Pageable page);
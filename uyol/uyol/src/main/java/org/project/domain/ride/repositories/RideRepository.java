@@ -4,6 +4,7 @@ import org.project.application.dto.ride.RideDTO;
 import org.project.domain.ride.entities.Ride;
 import org.project.domain.ride.value_object.Location;
 import org.project.domain.ride.value_object.RideID;
+import org.project.domain.ride.value_object.SearchRadius;
 import org.project.domain.shared.containers.Result;
 import org.project.domain.shared.value_objects.DriverID;
 import org.project.domain.shared.value_objects.OwnerID;
@@ -17,8 +18,6 @@ public interface RideRepository {
 
     Result<Integer, Throwable> save(Ride ride);
 
-    Result<Integer, Throwable> updateSeats(Ride ride);
-
     Result<Integer, Throwable> updateStatus(Ride ride);
 
     Result<Integer, Throwable> updateRules(Ride ride);
@@ -33,5 +32,13 @@ public interface RideRepository {
 
     Result<List<RideDTO>, Throwable> pageOf(LocalDate localDate, Pageable page);
 
-    Result<List<RideDTO>, Throwable> actualFor(Location startPoint, Location destination, LocalDate date, Pageable page);
+    Result<List<RideDTO>, Throwable> actualFor(
+            Location startPoint,
+            Location destination,
+            SearchRadius radius,
+            LocalDate date,
+            Pageable page
+    );
+
+    Result<List<RideDTO>, Throwable> pendingFrom(LocalDate date);
 }
@@ -3,6 +3,7 @@ package org.project.domain.ride.value_object;
 import org.project.domain.shared.exceptions.IllegalDomainArgumentException;
 
 public record Location(String description, double latitude, double longitude) {
+  public static final double EARTH_RADIUS_KM = 6370.986;
 
   public Location {
     if (description == null || description.isBlank())
@@ -18,6 +19,20 @@ public record Location(String description, double latitude, double longitude) {
       throw new IllegalDomainArgumentException("Longitude must be between -180 and 180");
   }
 
+  public double distanceTo(Location other) {
+    return distanceKm(latitude, longitude, other.latitude(), other.longitude());
+  }
+
+  public static double distanceKm(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+    double dLat = Math.toRadians(toLatitude - fromLatitude);
+    double dLon = Math.toRadians(toLongitude - fromLongitude);
+    double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(fromLatitude)) * Math.cos(Math.toRadians(toLatitude))
+            * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+
+    return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+  }
+
   @Override
   public String toString() {
     return description + " (" + latitude + ", " + longitude + ")";
@@ -0,0 +1,63 @@
+package org.project.domain.ride.value_object;
+
+import java.util.List;
+
+import org.project.domain.shared.exceptions.IllegalDomainArgumentException;
+
+public record SearchRadius(double kilometres) {
+    public static final double MAX_KILOMETRES = 500.0;
+
+    private static final double KILOMETRES_PER_DEGREE = Math.PI * Location.EARTH_RADIUS_KM / 180.0;
+
+    public SearchRadius {
+        if (Double.isNaN(kilometres) || kilometres <= 0)
+            throw new IllegalDomainArgumentException("Search radius must be positive");
+
+        if (kilometres > MAX_KILOMETRES)
+            throw new IllegalDomainArgumentException("Search radius cannot exceed " + MAX_KILOMETRES + " km");
+    }
+
+    public double metres() {
+        return kilometres * 1000;
+    }
+
+    public double latitudeDelta() {
+        return kilometres / KILOMETRES_PER_DEGREE;
+    }
+
+    /**
+     * Half the width of the smallest longitude range holding the circle: {@code asin(sin(r/R) / cos φ)}.
+     * 180 when the circle reaches a pole, since every longitude is then inside it.
+     */
+    public double longitudeDelta(double latitude) {
+        if (Math.abs(latitude) + latitudeDelta() >= 90.0) return 180.0;
+
+        double sin = Math.sin(kilometres / Location.EARTH_RADIUS_KM) / Math.cos(Math.toRadians(latitude));
+        if (sin >= 1.0) return 180.0;
+        return Math.toDegrees(Math.asin(sin));
+    }
+
+    /**
+     * Longitude ranges holding the circle around the point: one, or two when it crosses the
+     * ±180 meridian, split there so neither range wraps.
+     */
+    public List<LongitudeRange> longitudeRanges(double latitude, double longitude) {
+        double delta = longitudeDelta(latitude);
+        if (delta >= 180.0) return List.of(new LongitudeRange(-180.0, 180.0));
+
+        double min = longitude - delta;
+        double max = longitude + delta;
+        if (min < -180.0)
+            return List.of(new LongitudeRange(-180.0, max), new LongitudeRange(min + 360.0, 180.0));
+        if (max > 180.0)
+            return List.of(new LongitudeRange(min, 180.0), new LongitudeRange(-180.0, max - 360.0));
+        return List.of(new LongitudeRange(min, max));
+    }
+
+    public boolean contains(Location center, double latitude, double longitude) {
+        return Location.distanceKm(center.latitude(), center.longitude(), latitude, longitude) <= kilometres;
+    }
+
+    public record LongitudeRange(double min, double max) {
+    }
+}
@@ -4,103 +4,141 @@ import static org.project.domain.shared.util.Utils.required;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Arrays;
-import java.util.Objects;
 
 import org.project.domain.ride.enumerations.SeatStatus;
 import org.project.domain.shared.exceptions.IllegalDomainArgumentException;
 
-public record SeatMap(SeatStatus[][] seats) {
+/**
+ * Seat layout of a ride packed into primitives. Seat {@code i} (row-major) is bit {@code i}:
+ * {@code occupied} marks taken seats, and for those the pair of bits from {@code kindHigh} and
+ * {@code kindLow} holds the occupant: 01 male, 10 female, 11 child. Seat 0 is always the driver.
+ */
+public final class SeatMap {
 
-  public SeatMap {
+  public static final int MAX_SEATS = 64;
+
+  public static final int MAX_COLUMNS = 4;
+
+  private final int rows;
+  private final int columns;
+  private final long occupied;
+  private final long kindLow;
+  private final long kindHigh;
+
+  public SeatMap(SeatStatus[][] seats) {
     required("seats", seats);
-    if (seats.length == 0 || seats[0].length == 0)
+    if (seats.length == 0 || seats[0] == null || seats[0].length == 0)
       throw new IllegalDomainArgumentException("Seat matrix cannot be empty");
 
+    int columns = seats[0].length;
+    if (columns > MAX_COLUMNS)
+      throw new IllegalDomainArgumentException("Seat matrix contains more than 4 seats in a row");
+
+    validateRowsAndColumns(seats.length, columns);
+
     if (seats[0][0] != SeatStatus.DRIVER)
       throw new IllegalDomainArgumentException("Seat matrix must start with driver");
 
-    int totalSeats = 1;
-    boolean isFirstSeat = true;
+    long occupied = 0;
+    long kindLow = 0;
+    long kindHigh = 0;
+    int index = 0;
 
     for (SeatStatus[] row : seats) {
-      if (row.length > 4)
-        throw new IllegalDomainArgumentException("Seat matrix contains more than 4 rows");
+      required("row", row);
+      if (row.length != columns)
+        throw new IllegalDomainArgumentException("All rows of the seat matrix must have the same length");
 
       for (SeatStatus seat : row) {
         required("seat", seat);
-        totalSeats++;
-
-        if (isFirstSeat) {
-          isFirstSeat = false;
-          continue;
-        }
 
-        if (totalSeats > 64)
-          throw new IllegalDomainArgumentException("Invalid seats count: min 2, max 64");
+        if (index != 0 && seat == SeatStatus.DRIVER)
+          throw new IllegalDomainArgumentException("There can be only one driver");
 
-        if (seat == SeatStatus.DRIVER)
-            throw new IllegalDomainArgumentException("There can be only one driver");
+        if (seat.isOccupied()) {
+          int code = codeOf(seat);
+          long bit = 1L << index;
+          occupied |= bit;
+          if ((code & 1) != 0) kindLow |= bit;
+          if ((code & 2) != 0) kindHigh |= bit;
+        }
+        index++;
       }
     }
 
-    if (totalSeats < 2)
-      throw new IllegalDomainArgumentException("Invalid seats count: min 2, max 64");
+    this.rows = seats.length;
+    this.columns = columns;
+    this.occupied = occupied;
+    this.kindLow = kindLow;
+    this.kindHigh = kindHigh;
+  }
+
+  private SeatMap(int rows, int columns, long occupied, long kindLow, long kindHigh) {
+    this.rows = rows;
+    this.columns = columns;
+    this.occupied = occupied;
+    this.kindLow = kindLow;
+    this.kindHigh = kindHigh;
   }
 
   public static SeatMap ofEmpty(int rows, int cols) {
     validateRowsAndColumns(rows, cols);
+    if (cols > MAX_COLUMNS)
+      throw new IllegalDomainArgumentException("Seat matrix contains more than 4 seats in a row");
 
-    SeatStatus[][] matrix = new SeatStatus[rows][cols];
-    matrix[0][0] = SeatStatus.DRIVER;
+    return new SeatMap(rows, cols, 0L, 0L, 0L);
+  }
 
-    for (int i = 0; i < rows; i++) {
-      for (int j = 0; j < cols; j++) {
-        if (i == 0 && j == 0) continue;
-        matrix[i][j] = SeatStatus.EMPTY;
-      }
-    }
+  public static SeatMap fromBits(int rows, int columns, long occupied, long kindLow, long kindHigh) {
+    validateRowsAndColumns(rows, columns);
+    if (columns > MAX_COLUMNS)
+      throw new IllegalDomainArgumentException("Seat matrix contains more than 4 seats in a row");
+
+    long passengers = mask(rows * columns) & ~1L;
+    if ((occupied & ~passengers) != 0)
+      throw new IllegalDomainArgumentException("Occupied seats are outside of the seat matrix");
+
+    if (((kindLow | kindHigh) & ~occupied) != 0 || ((kindLow | kindHigh) & occupied) != occupied)
+      throw new IllegalDomainArgumentException("Occupant codes do not match occupied seats");
 
-    return new SeatMap(matrix);
+    return new SeatMap(rows, columns, occupied, kindLow, kindHigh);
   }
 
   public SeatStatus[][] seats() {
-    SeatStatus[][] copy = new SeatStatus[seats.length][];
-    for (int i = 0; i < seats.length; i++) {
-      copy[i] = Arrays.copyOf(seats[i], seats[i].length);
+    SeatStatus[][] matrix = new SeatStatus[rows][columns];
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < columns; j++) {
+        matrix[i][j] = statusAt(i * columns + j);
+      }
     }
-    return copy;
+    return matrix;
   }
 
   public List<SeatStatus> seatsList() {
-    List<SeatStatus> allSeats = new ArrayList<>();
-    for (SeatStatus[] row : seats) {
-      allSeats.addAll(Arrays.asList(row));
+    List<SeatStatus> allSeats = new ArrayList<>(size());
+    for (int i = 0; i < size(); i++) {
+      allSeats.add(statusAt(i));
     }
     return allSeats;
   }
 
   public SeatStatus status(int index) {
-    if (index < 0 || index >= totalSeats())
+    if (index < 0 || index >= size())
       throw new IllegalDomainArgumentException("Invalid seat index: " + index);
 
-    int row = index / seats[0].length;
-    int col = index % seats[0].length;
-    return seats[row][col];
+    return statusAt(index);
   }
 
   public boolean isAvailable(int index) {
-    if (index < 0 || index >= totalSeats())
+    if (index <= 0 || index >= size())
       return false;
 
-    int row = index / seats[0].length;
-    int col = index % seats[0].length;
-    return seats[row][col] == SeatStatus.EMPTY;
+    return (occupied & (1L << index)) == 0;
   }
 
   public SeatMap occupy(int index, SeatStatus occupantStatus) {
     required("occupantStatus", occupantStatus);
-    if (index <= 0 || index >= totalSeats())
+    if (index <= 0 || index >= size())
       throw new IllegalDomainArgumentException("Invalid seat index: " + index);
 
     if (!occupantStatus.isOccupied())
@@ -109,105 +147,145 @@ public record SeatMap(SeatStatus[][] seats) {
     if (!isAvailable(index))
       throw new IllegalDomainArgumentException("Seat is already occupied");
 
-    return updateStatus(index, occupantStatus);
+    int code = codeOf(occupantStatus);
+    long bit = 1L << index;
+    return new SeatMap(
+            rows,
+            columns,
+            occupied | bit,
+            (code & 1) != 0 ? kindLow | bit : kindLow,
+            (code & 2) != 0 ? kindHigh | bit : kindHigh
+    );
   }
 
-  public int size() {
-    return totalSeats();
+  /** Occupies every booked seat at once; either all of them are free or nothing changes. */
+  public SeatMap occupyAll(BookedSeats bookedSeats) {
+    required("bookedSeats", bookedSeats);
+    if (bookedSeats.isEmpty())
+      throw new IllegalDomainArgumentException("At least one seat must be booked");
+
+    long taken = occupied;
+    long low = kindLow;
+    long high = kindHigh;
+
+    for (PassengerSeat seat : bookedSeats.bookedSeats()) {
+      int index = seat.index();
+      if (index <= 0 || index >= size())
+        throw new IllegalDomainArgumentException("Invalid seat index: " + index);
+
+      long bit = 1L << index;
+      if ((taken & bit) != 0)
+        throw new IllegalDomainArgumentException("Seat is already occupied");
+
+      int code = codeOf(seat.status());
+      taken |= bit;
+      if ((code & 1) != 0) low |= bit;
+      if ((code & 2) != 0) high |= bit;
+    }
+
+    return new SeatMap(rows, columns, taken, low, high);
   }
 
-  private int totalSeats() {
-    int count = 0;
-    for (SeatStatus[] row : seats) {
-      count += row.length;
-    }
-    return count;
+  public int size() {
+    return rows * columns;
   }
 
   public List<Integer> occupiedIndexes() {
-    List<Integer> occupied = new ArrayList<>();
-    int currentIndex = 0;
-
-    for (SeatStatus[] row : seats) {
-      for (SeatStatus seat : row) {
-        if (seat.isOccupied()) {
-          occupied.add(currentIndex);
-        }
-        currentIndex++;
-      }
+    List<Integer> indexes = new ArrayList<>(Long.bitCount(occupied));
+    for (long bits = occupied; bits != 0; bits &= bits - 1) {
+      indexes.add(Long.numberOfTrailingZeros(bits));
     }
-    return occupied;
+    return indexes;
   }
 
   public boolean hasAvailableSeats() {
-    for (SeatStatus[] row : seats) {
-      for (SeatStatus seat : row) {
-        if (seat == SeatStatus.EMPTY) {
-          return true;
-        }
-      }
-    }
-    return false;
+    return (~occupied & mask(size()) & ~1L) != 0;
   }
 
   public int rowCount() {
-    return seats.length;
+    return rows;
   }
 
   public int columnCount() {
-    return seats.length > 0 ? seats[0].length : 0;
+    return columns;
   }
 
   public SeatStatus status(int row, int col) {
-    if (row < 0 || row >= seats.length || col < 0 || col >= seats[row].length)
+    if (row < 0 || row >= rows || col < 0 || col >= columns)
       throw new IllegalDomainArgumentException("Invalid seat coordinates: [" + row + "][" + col + "]");
-    return seats[row][col];
+    return statusAt(row * columns + col);
   }
 
-  private static void validateRowsAndColumns(int rows, int cols) {
-    if (rows < 1 || cols < 1 || rows * cols < 2 || rows * cols > 64)
-      throw new IllegalDomainArgumentException("Total seats must be between 2 and 64");
+  public long occupiedBits() {
+    return occupied;
   }
 
-  private SeatMap updateStatus(int index, SeatStatus newStatus) {
-    required("newStatus", newStatus);
-    if (index < 0 || index >= totalSeats())
-      throw new IllegalDomainArgumentException("Invalid seat index: " + index);
+  public long kindLowBits() {
+    return kindLow;
+  }
 
-    if (index == 0 && newStatus != SeatStatus.DRIVER)
-      throw new IllegalDomainArgumentException("First seat must always be for the driver");
+  public long kindHighBits() {
+    return kindHigh;
+  }
 
-    if (index != 0 && newStatus == SeatStatus.DRIVER)
-      throw new IllegalDomainArgumentException("There can be only one driver");
+  private SeatStatus statusAt(int index) {
+    if (index == 0) return SeatStatus.DRIVER;
 
-    SeatStatus[][] newMatrix = new SeatStatus[seats.length][];
-    for (int i = 0; i < seats.length; i++) {
-      newMatrix[i] = Arrays.copyOf(seats[i], seats[i].length);
-    }
+    long bit = 1L << index;
+    if ((occupied & bit) == 0) return SeatStatus.EMPTY;
 
-    int row = index / seats[0].length;
-    int col = index % seats[0].length;
-    newMatrix[row][col] = newStatus;
+    int code = ((kindHigh & bit) != 0 ? 2 : 0) | ((kindLow & bit) != 0 ? 1 : 0);
+    return switch (code) {
+      case 1 -> SeatStatus.MALE_OCCUPIED;
+      case 2 -> SeatStatus.FEMALE_OCCUPIED;
+      case 3 -> SeatStatus.CHILD_OCCUPIED;
+      default -> throw new IllegalStateException("Unknown occupant code for seat " + index);
+    };
+  }
 
-    return new SeatMap(newMatrix);
+  private static int codeOf(SeatStatus occupant) {
+    return switch (occupant) {
+      case MALE_OCCUPIED -> 1;
+      case FEMALE_OCCUPIED -> 2;
+      case CHILD_OCCUPIED -> 3;
+      default -> throw new IllegalDomainArgumentException("Seat must be occupied with valid occupant");
+    };
+  }
+
+  private static long mask(int seats) {
+    return seats == MAX_SEATS ? -1L : (1L << seats) - 1;
+  }
+
+  private static void validateRowsAndColumns(int rows, int cols) {
+    if (rows < 1 || cols < 1 || rows > MAX_SEATS || cols > MAX_SEATS || rows * cols < 2 || rows * cols > MAX_SEATS)
+      throw new IllegalDomainArgumentException("Total seats must be between 2 and 64");
   }
 
   @Override
   public boolean equals(Object o) {
     if (o == null || getClass() != o.getClass()) return false;
     SeatMap seatMap = (SeatMap) o;
-    return Objects.deepEquals(seats, seatMap.seats);
+    return rows == seatMap.rows
+            && columns == seatMap.columns
+            && occupied == seatMap.occupied
+            && kindLow == seatMap.kindLow
+            && kindHigh == seatMap.kindHigh;
   }
 
   @Override
   public int hashCode() {
-    return Arrays.deepHashCode(seats);
+    int result = 31 * rows + columns;
+    result = 31 * result + Long.hashCode(occupied);
+    result = 31 * result + Long.hashCode(kindLow);
+    return 31 * result + Long.hashCode(kindHigh);
   }
 
   @Override
   public String toString() {
     return "SeatMap{" +
-            "seats=" + Arrays.toString(seats) +
+            "rows=" + rows +
+            ", columns=" + columns +
+            ", occupied=" + Long.toBinaryString(occupied) +
             '}';
   }
-}
\ No newline at end of file
+}
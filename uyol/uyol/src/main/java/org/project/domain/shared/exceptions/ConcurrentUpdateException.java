@@ -0,0 +1,8 @@
+package org.project.domain.shared.exceptions;
+
+/** Raised when a versioned update finds that the row was changed since it was read. */
+public class ConcurrentUpdateException extends DomainException {
+    public ConcurrentUpdateException(String message) {
+        super(message);
+    }
+}
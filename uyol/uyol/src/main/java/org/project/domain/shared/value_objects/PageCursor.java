@@ -0,0 +1,66 @@
+package org.project.domain.shared.value_objects;
+
+import static org.project.domain.shared.util.Utils.required;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.project.domain.shared.exceptions.IllegalDomainArgumentException;
+
+/**
+ * Position of the last row of a page: its sort key and its id as a tie-breaker.
+ * Travels to clients as an opaque url-safe token.
+ */
+public record PageCursor(String key, String id) {
+    private static final char SEPARATOR = '|';
+
+    public PageCursor {
+        required("key", key);
+        required("id", id);
+    }
+
+    public static PageCursor of(Object key, String id) {
+        required("key", key);
+        return new PageCursor(key.toString(), id);
+    }
+
+    public static PageCursor decode(String token) {
+        required("cursor", token);
+
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalDomainArgumentException("Invalid page cursor", e);
+        }
+
+        int separator = decoded.lastIndexOf(SEPARATOR);
+        if (separator <= 0 || separator == decoded.length() - 1)
+            throw new IllegalDomainArgumentException("Invalid page cursor");
+
+        return new PageCursor(decoded.substring(0, separator), decoded.substring(separator + 1));
+    }
+
+    public String encode() {
+        byte[] raw = (key + SEPARATOR + id).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    public LocalDateTime keyAsDateTime() {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new IllegalDomainArgumentException("Invalid page cursor", e);
+        }
+    }
+
+    public double keyAsDouble() {
+        try {
+            return Double.parseDouble(key);
+        } catch (NumberFormatException e) {
+            throw new IllegalDomainArgumentException("Invalid page cursor", e);
+        }
+    }
+}
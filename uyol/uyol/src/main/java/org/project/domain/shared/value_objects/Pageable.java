@@ -1,7 +1,14 @@
 package org.project.domain.shared.value_objects;
 
+import java.util.Optional;
+
 public interface Pageable {
   int limit();
 
   int offset();
+
+  /** Keyset position to continue after; when present the offset is ignored. */
+  default Optional<PageCursor> cursor() {
+    return Optional.empty();
+  }
 }
@@ -1,11 +1,13 @@
 package org.project.domain.user.repositories;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.project.domain.shared.containers.Result;
 import org.project.domain.user.entities.User;
 import org.project.domain.user.value_objects.Email;
 import org.project.domain.user.value_objects.Phone;
+import org.project.domain.user.value_objects.PrincipalContext;
 import org.project.domain.user.value_objects.RefreshToken;
 import org.project.domain.user.value_objects.Identifier;
 
@@ -31,6 +33,12 @@ public interface UserRepository {
 
     boolean isPhoneExists(Phone phone);
 
+    /** Emails in index order after the given one, to seed membership filters. */
+    Result<List<String>, Throwable> emailsAfter(String after, int limit);
+
+    /** Phones in index order after the given one, to seed membership filters. */
+    Result<List<String>, Throwable> phonesAfter(String after, int limit);
+
     Result<User, Throwable> findBy(UUID id);
 
     Result<User, Throwable> findBy(Email email);
@@ -39,5 +47,8 @@ public interface UserRepository {
 
     Result<User, Throwable> findBy(Identifier identifier);
 
+    /** The account with its driver and owner ids, in one query. */
+    Result<PrincipalContext, Throwable> findPrincipal(Identifier identifier);
+
     Result<RefreshToken, Throwable> findRefreshToken(String refreshToken);
 }
@@ -0,0 +1,37 @@
+package org.project.domain.user.value_objects;
+
+import static org.project.domain.shared.util.Utils.required;
+
+import java.util.Optional;
+
+import org.project.domain.shared.annotations.Nullable;
+import org.project.domain.shared.value_objects.DriverID;
+import org.project.domain.shared.value_objects.OwnerID;
+import org.project.domain.shared.value_objects.UserID;
+
+/** Who is calling: the account and the driver and owner accounts registered on it. */
+public record PrincipalContext(
+        UserID userID,
+        @Nullable DriverID driverID,
+        @Nullable OwnerID ownerID) {
+
+    public PrincipalContext {
+        required("userID", userID);
+    }
+
+    public Optional<DriverID> driver() {
+        return Optional.ofNullable(driverID);
+    }
+
+    public Optional<OwnerID> owner() {
+        return Optional.ofNullable(ownerID);
+    }
+
+    public boolean isDriver() {
+        return driverID != null;
+    }
+
+    public boolean isOwner() {
+        return ownerID != null;
+    }
+}
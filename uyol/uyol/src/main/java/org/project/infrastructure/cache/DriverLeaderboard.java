@@ -0,0 +1,265 @@
+package org.project.infrastructure.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import org.project.application.dto.fleet.DriverDTO;
+import org.project.domain.fleet.entities.Driver;
+import org.project.domain.fleet.repositories.DriverRepository;
+import org.project.domain.shared.containers.Result;
+import org.project.domain.shared.value_objects.DriverID;
+import org.project.domain.shared.value_objects.PageCursor;
+import org.project.domain.shared.value_objects.Pageable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.stereotype.Component;
+
+/**
+ * Available drivers ranked by average rating in a Redis sorted set, in the same order as the
+ * driver page query: the score is the negated average, so ties fall back to the id ascending.
+ * Rides and reviews sit next to it in a hash, so a page is three reads and no SQL. The set is
+ * built from MySQL once, by the first node that takes {@link #SEED_LOCK}, and kept up to date by
+ * rating and status changes; a node that finds {@link #SEEDED} only waits for it and never
+ * rebuilds a warm board. Until a node sees the board ready, or whenever Redis fails, its callers
+ * read MySQL instead, and the drivers it updates meanwhile are noted in {@link #DIRTY}, so the
+ * seeding node applies them again over the freshly swapped board.
+ */
+@Component
+public class DriverLeaderboard {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverLeaderboard.class);
+
+    static final int SEED_PAGE = 500;
+
+    static final Duration SEED_LOCK_TTL = Duration.ofMinutes(5);
+
+    static final long SEED_WAIT_MILLIS = 1_000;
+
+    private static final String RANKING = "{driver_leaderboard}";
+
+    private static final String DETAILS = "{driver_leaderboard}:drivers";
+
+    private static final String SEEDED = "{driver_leaderboard}:seeded";
+
+    private static final String SEED_LOCK = "{driver_leaderboard}:seeding";
+
+    private static final String DIRTY = "{driver_leaderboard}:dirty";
+
+    private final DriverRepository driverRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private volatile boolean warm;
+
+    public DriverLeaderboard(DriverRepository driverRepository, StringRedisTemplate stringRedisTemplate) {
+        this.driverRepository = driverRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread.startVirtualThread(this::awaitBoard);
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /* ================= UPDATES ================= */
+
+    /** Ranks an available driver by its current rating and drops a busy one. Best effort. */
+    public void update(Driver driver) {
+        String id = driver.id().value().toString();
+        try {
+            if (!warm) stringRedisTemplate.opsForSet().add(DIRTY, id);
+
+            if (!driver.isAvailable()) {
+                stringRedisTemplate.opsForZSet().remove(RANKING, id);
+                stringRedisTemplate.opsForHash().delete(DETAILS, id);
+                return;
+            }
+
+            DriverDTO ranked = DriverDTO.from(driver);
+            stringRedisTemplate.opsForHash().put(DETAILS, id, details(ranked));
+            stringRedisTemplate.opsForZSet().add(RANKING, id, score(ranked.averageScore()));
+        } catch (RuntimeException e) {
+            log.warn("Unable to update leaderboard entry of driver {}", id, e);
+        }
+    }
+
+    /* ================= PAGES ================= */
+
+    /**
+     * A page of available drivers, best rated first. Empty when the leaderboard cannot answer:
+     * it is not warm yet, Redis failed, or the cursor driver left the board since the last page.
+     */
+    public Optional<List<DriverDTO>> page(Pageable page) {
+        if (!warm) return Optional.empty();
+
+        try {
+            long start = page.offset();
+            Optional<PageCursor> after = page.cursor();
+            if (after.isPresent()) {
+                Long rank = stringRedisTemplate.opsForZSet().rank(RANKING, after.get().id());
+                if (rank == null) return Optional.empty();
+                start = rank + 1;
+            }
+
+            Set<TypedTuple<String>> ranked = stringRedisTemplate.opsForZSet()
+                    .rangeWithScores(RANKING, start, start + page.limit() - 1);
+            if (ranked == null) return Optional.empty();
+            if (ranked.isEmpty()) return Optional.of(List.of());
+
+            List<Object> ids = new ArrayList<>(ranked.size());
+            for (TypedTuple<String> entry : ranked) ids.add(entry.getValue());
+            List<Object> details = stringRedisTemplate.opsForHash().multiGet(DETAILS, ids);
+
+            List<DriverDTO> drivers = new ArrayList<>(ranked.size());
+            int i = 0;
+            for (TypedTuple<String> entry : ranked) {
+                String[] ridesAndReviews = details.get(i++) instanceof String found ? found.split(":") : null;
+                if (ridesAndReviews == null || ridesAndReviews.length != 2) return Optional.empty();
+
+                double score = entry.getScore() == null ? 0 : entry.getScore();
+                drivers.add(new DriverDTO(
+                        entry.getValue(),
+                        Integer.parseInt(ridesAndReviews[0]),
+                        Integer.parseInt(ridesAndReviews[1]),
+                        score == 0 ? 0 : -score
+                ));
+            }
+            return Optional.of(drivers);
+        } catch (RuntimeException e) {
+            log.warn("Unable to read driver leaderboard, falling back to MySQL", e);
+            return Optional.empty();
+        }
+    }
+
+    /* ================= SEEDING ================= */
+
+    /** Uses the board once it is seeded, seeding it here when no other node does. */
+    private void awaitBoard() {
+        try {
+            while (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(SEEDED))) {
+                if (Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(SEED_LOCK, "1", SEED_LOCK_TTL))) {
+                    seed();
+                    return;
+                }
+                Thread.sleep(SEED_WAIT_MILLIS);
+            }
+
+            warm = true;
+            log.info("Driver leaderboard was already seeded, using it");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Unable to check driver leaderboard, available drivers are read from MySQL", e);
+        }
+    }
+
+    /**
+     * Builds the board under temporary keys from the indexed MySQL page, swaps it in, marks it
+     * seeded and applies again the drivers updated while it was built, whose changes the swap lost.
+     */
+    private void seed() {
+        String suffix = ":seed:" + UUID.randomUUID();
+        byte[] ranking = bytes(RANKING + suffix);
+        byte[] details = bytes(DETAILS + suffix);
+
+        try {
+            int seeded = 0;
+            PageCursor after = null;
+            while (true) {
+                List<DriverDTO> drivers = driverRepository.page(new SeedPage(after)).orElseThrow();
+                if (drivers.isEmpty()) break;
+
+                stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (DriverDTO driver : drivers) {
+                        byte[] id = bytes(driver.driverID());
+                        connection.zSetCommands().zAdd(ranking, score(driver.averageScore()), id);
+                        connection.hashCommands().hSet(details, id, bytes(details(driver)));
+                    }
+                    return null;
+                });
+
+                seeded += drivers.size();
+                DriverDTO last = drivers.getLast();
+                after = PageCursor.of(last.averageScore(), last.driverID());
+                if (drivers.size() < SEED_PAGE) break;
+            }
+
+            if (seeded == 0) {
+                stringRedisTemplate.delete(List.of(RANKING, DETAILS));
+            } else {
+                stringRedisTemplate.rename(RANKING + suffix, RANKING);
+                stringRedisTemplate.rename(DETAILS + suffix, DETAILS);
+            }
+            stringRedisTemplate.opsForValue().set(SEEDED, "1");
+
+            warm = true;
+            reapplyDirty();
+            stringRedisTemplate.delete(SEED_LOCK);
+            log.info("Driver leaderboard is warm with {} available drivers", seeded);
+        } catch (RuntimeException e) {
+            log.warn("Unable to seed driver leaderboard, available drivers are read from MySQL", e);
+            try {
+                stringRedisTemplate.delete(List.of(RANKING + suffix, DETAILS + suffix, SEED_LOCK));
+            } catch (RuntimeException ignored) {
+                // the temporary keys are only garbage, nothing reads them, and the lock expires
+            }
+        }
+    }
+
+    private void reapplyDirty() {
+        String id;
+        while ((id = stringRedisTemplate.opsForSet().pop(DIRTY)) != null) {
+            Result<Driver, Throwable> driver = driverRepository.findBy(DriverID.fromString(id));
+            if (driver.success()) update(driver.value());
+            else log.warn("Unable to reapply leaderboard entry of driver {}", id, driver.throwable());
+        }
+    }
+
+    private record SeedPage(PageCursor after) implements Pageable {
+
+        @Override
+        public int limit() {
+            return SEED_PAGE;
+        }
+
+        @Override
+        public int offset() {
+            return 0;
+        }
+
+        @Override
+        public Optional<PageCursor> cursor() {
+            return Optional.ofNullable(after);
+        }
+    }
+
+    /* ================= INTERNALS ================= */
+
+    /** Rounded like the generated average_rating column, so both sources rank ties alike. */
+    private static double score(double average) {
+        double rounded = Math.round(average * 10_000) / 10_000.0;
+        return rounded == 0 ? 0 : -rounded;
+    }
+
+    private static String details(DriverDTO driver) {
+        return driver.totalRides() + ":" + driver.totalReviews();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
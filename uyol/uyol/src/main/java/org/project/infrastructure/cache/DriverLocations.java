@@ -0,0 +1,390 @@
+package org.project.infrastructure.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.project.application.dto.fleet.NearbyDriverDTO;
+import org.project.domain.fleet.entities.Driver;
+import org.project.domain.ride.value_object.Location;
+import org.project.domain.ride.value_object.SearchRadius;
+import org.project.domain.shared.annotations.Nullable;
+import org.project.domain.shared.exceptions.IllegalDomainArgumentException;
+import org.project.domain.shared.value_objects.DriverID;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.geo.Circle;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisGeoCommands.GeoLocation;
+import org.springframework.data.redis.connection.RedisGeoCommands.GeoRadiusCommandArgs;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Last known position of every available driver that pings this node, in a grid of
+ * {@link #CELL_DEGREES} cells. A ping replaces the driver's position and only moves it between
+ * cells when it crossed a border, under one of {@link #STRIPES} locks picked by driver id, so
+ * pings of different drivers never wait on each other. Drivers that stop pinging for
+ * {@link #FORGET_AFTER_MILLIS} are dropped. Every {@link #SNAPSHOT_EVERY_MILLIS} the moved drivers
+ * are written to a Redis GEO set, which lets a node also find drivers that ping its peers. A
+ * status change is announced on {@link #CHANNEL}, and every other node drops the driver from its
+ * grid and forgets its status, so its next ping there reads the status again.
+ */
+@Component
+public class DriverLocations implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverLocations.class);
+
+    public static final String CHANNEL = "driver_locations:statuses";
+
+    static final double CELL_DEGREES = 0.05;
+
+    static final int STRIPES = 64;
+
+    static final long FORGET_AFTER_MILLIS = 60_000;
+
+    static final long SNAPSHOT_EVERY_MILLIS = 5_000;
+
+    static final int MAX_KNOWN_DRIVERS = 100_000;
+
+    private static final String POSITIONS = "{driver_locations}";
+
+    private static final String SEEN = "{driver_locations}:seen";
+
+    private final String node = UUID.randomUUID().toString();
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final Object[] stripes = new Object[STRIPES];
+    private final Map<DriverID, Ping> latest = new ConcurrentHashMap<>();
+    private final Map<Long, Set<DriverID>> cells = new ConcurrentHashMap<>();
+    private final Set<DriverID> known = ConcurrentHashMap.newKeySet();
+    private final Set<DriverID> busy = ConcurrentHashMap.newKeySet();
+    private final Set<DriverID> moved = ConcurrentHashMap.newKeySet();
+    private final Set<DriverID> gone = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService maintenance;
+
+    public DriverLocations(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Object();
+
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "driver-locations");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maintenance.scheduleWithFixedDelay(
+                this::maintain,
+                SNAPSHOT_EVERY_MILLIS,
+                SNAPSHOT_EVERY_MILLIS,
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        maintenance.shutdownNow();
+    }
+
+    /* ================= STATUSES ================= */
+
+    /** Whether this node has seen the driver's status, so its pings can be judged without MySQL. */
+    public boolean knows(DriverID driverID) {
+        return known.contains(driverID);
+    }
+
+    /** Remembers the status of a driver read from MySQL; a driver that is not available leaves the grid. */
+    public void learn(Driver driver) {
+        if (known.size() >= MAX_KNOWN_DRIVERS) known.clear();
+        known.add(driver.id());
+
+        if (driver.isAvailable()) {
+            busy.remove(driver.id());
+            return;
+        }
+
+        busy.add(driver.id());
+        forget(driver.id(), null);
+    }
+
+    /** Follows a status change here and announces it, so the other nodes read the status again. */
+    public void update(Driver driver) {
+        learn(driver);
+
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, node + ":" + driver.id().value());
+        } catch (RuntimeException e) {
+            log.warn("Unable to announce status of driver {}, other nodes keep their copy of it", driver.id().value(), e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, @Nullable byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 2);
+        if (parts.length != 2 || parts[0].equals(node)) return;
+
+        DriverID driverID;
+        try {
+            driverID = DriverID.fromString(parts[1]);
+        } catch (RuntimeException e) {
+            log.warn("Ignoring status change of malformed driver id {}", parts[1]);
+            return;
+        }
+
+        known.remove(driverID);
+        busy.remove(driverID);
+        forget(driverID, null);
+    }
+
+    /* ================= PINGS ================= */
+
+    /** Records the position of an available driver; false when the driver is known to be busy. */
+    public boolean ping(DriverID driverID, double latitude, double longitude) {
+        if (Double.isNaN(latitude) || latitude < -90.0 || latitude > 90.0)
+            throw new IllegalDomainArgumentException("Latitude must be between -90 and 90");
+        if (Double.isNaN(longitude) || longitude < -180.0 || longitude > 180.0)
+            throw new IllegalDomainArgumentException("Longitude must be between -180 and 180");
+        if (busy.contains(driverID)) return false;
+
+        Ping ping = new Ping(latitude, longitude, cellOf(latitude, longitude), System.currentTimeMillis());
+        synchronized (stripeOf(driverID)) {
+            Ping previous = latest.put(driverID, ping);
+            if (previous == null || previous.cell != ping.cell) {
+                if (previous != null) leave(previous.cell, driverID);
+                cells.computeIfAbsent(ping.cell, cell -> ConcurrentHashMap.newKeySet()).add(driverID);
+            }
+        }
+
+        gone.remove(driverID);
+        moved.add(driverID);
+        return true;
+    }
+
+    /* ================= SEARCH ================= */
+
+    /** Available drivers seen lately within the radius, nearest first. */
+    public List<NearbyDriverDTO> nearest(double latitude, double longitude, SearchRadius radius, int limit) {
+        Location center = new Location("search", latitude, longitude);
+        long freshAfter = System.currentTimeMillis() - FORGET_AFTER_MILLIS;
+
+        Map<DriverID, NearbyDriverDTO> found = new HashMap<>();
+        forEachCellAround(center, radius, (driverID, ping) -> {
+            if (ping.seenAt <= freshAfter) return;
+
+            double distance = Location.distanceKm(latitude, longitude, ping.latitude, ping.longitude);
+            if (distance <= radius.kilometres())
+                found.put(driverID, nearby(driverID, ping.latitude, ping.longitude, distance, ping.seenAt));
+        });
+
+        for (NearbyDriverDTO peer : fromPeers(center, radius, limit, freshAfter))
+            found.putIfAbsent(DriverID.fromString(peer.driverID()), peer);
+
+        return found.values().stream()
+                .sorted(Comparator.comparingDouble(NearbyDriverDTO::distanceKm).thenComparing(NearbyDriverDTO::driverID))
+                .limit(limit)
+                .toList();
+    }
+
+    /* ================= SNAPSHOTS ================= */
+
+    private void maintain() {
+        try {
+            evictStale();
+            snapshot();
+            dropStalePeers();
+        } catch (RuntimeException e) {
+            log.warn("Unable to snapshot driver locations to Redis", e);
+        }
+    }
+
+    private void evictStale() {
+        long staleBefore = System.currentTimeMillis() - FORGET_AFTER_MILLIS;
+        latest.forEach((driverID, ping) -> {
+            if (ping.seenAt <= staleBefore) forget(driverID, ping);
+        });
+    }
+
+    private void snapshot() {
+        List<DriverID> movedNow = drain(moved);
+        List<DriverID> goneNow = drain(gone);
+        if (movedNow.isEmpty() && goneNow.isEmpty()) return;
+
+        byte[] positions = bytes(POSITIONS);
+        byte[] seen = bytes(SEEN);
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (DriverID driverID : movedNow) {
+                    Ping ping = latest.get(driverID);
+                    if (ping == null) continue;
+
+                    byte[] member = bytes(driverID.value().toString());
+                    connection.geoCommands().geoAdd(positions, new Point(ping.longitude, ping.latitude), member);
+                    connection.zSetCommands().zAdd(seen, ping.seenAt, member);
+                }
+                for (DriverID driverID : goneNow) {
+                    byte[] member = bytes(driverID.value().toString());
+                    connection.zSetCommands().zRem(positions, member);
+                    connection.zSetCommands().zRem(seen, member);
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            moved.addAll(movedNow);
+            gone.addAll(goneNow);
+            throw e;
+        }
+    }
+
+    /** Drops positions that no node refreshed lately, e.g. of a node that went away. */
+    private void dropStalePeers() {
+        Set<String> stale = stringRedisTemplate.opsForZSet()
+                .rangeByScore(SEEN, Double.NEGATIVE_INFINITY, System.currentTimeMillis() - FORGET_AFTER_MILLIS);
+        if (stale == null || stale.isEmpty()) return;
+
+        Object[] members = stale.toArray();
+        stringRedisTemplate.opsForZSet().remove(POSITIONS, members);
+        stringRedisTemplate.opsForZSet().remove(SEEN, members);
+    }
+
+    private List<NearbyDriverDTO> fromPeers(Location center, SearchRadius radius, int limit, long freshAfter) {
+        try {
+            GeoResults<GeoLocation<String>> results = stringRedisTemplate.opsForGeo().radius(
+                    POSITIONS,
+                    new Circle(new Point(center.longitude(), center.latitude()), new Distance(radius.kilometres(), Metrics.KILOMETERS)),
+                    GeoRadiusCommandArgs.newGeoRadiusArgs().includeCoordinates().includeDistance().sortAscending().limit(limit)
+            );
+            if (results == null || results.getContent().isEmpty()) return List.of();
+
+            List<GeoResult<GeoLocation<String>>> content = results.getContent();
+            Object[] members = content.stream().map(result -> result.getContent().getName()).toArray();
+            List<Double> seenAt = stringRedisTemplate.opsForZSet().score(SEEN, members);
+
+            List<NearbyDriverDTO> peers = new ArrayList<>(content.size());
+            for (int i = 0; i < content.size(); i++) {
+                Double seen = seenAt == null ? null : seenAt.get(i);
+                if (seen == null || seen <= freshAfter) continue;
+
+                GeoLocation<String> location = content.get(i).getContent();
+                peers.add(nearby(
+                        DriverID.fromString(location.getName()),
+                        location.getPoint().getY(),
+                        location.getPoint().getX(),
+                        content.get(i).getDistance().getValue(),
+                        seen.longValue()
+                ));
+            }
+            return peers;
+        } catch (RuntimeException e) {
+            log.warn("Unable to read driver locations of other nodes", e);
+            return List.of();
+        }
+    }
+
+    /* ================= INTERNALS ================= */
+
+    /** Drops the driver, or only the given stale ping of it when one is passed. */
+    private void forget(DriverID driverID, Ping stale) {
+        synchronized (stripeOf(driverID)) {
+            Ping current = latest.get(driverID);
+            if (current == null || (stale != null && current != stale)) return;
+
+            latest.remove(driverID);
+            leave(current.cell, driverID);
+        }
+
+        moved.remove(driverID);
+        gone.add(driverID);
+    }
+
+    private void leave(long cell, DriverID driverID) {
+        cells.computeIfPresent(cell, (key, drivers) -> {
+            drivers.remove(driverID);
+            return drivers.isEmpty() ? null : drivers;
+        });
+    }
+
+    private void forEachCellAround(Location point, SearchRadius radius, PingConsumer action) {
+        int minLat = cellIndex(point.latitude() - radius.latitudeDelta());
+        int maxLat = cellIndex(point.latitude() + radius.latitudeDelta());
+
+        for (SearchRadius.LongitudeRange range : radius.longitudeRanges(point.latitude(), point.longitude())) {
+            int minLon = cellIndex(range.min());
+            int maxLon = cellIndex(range.max());
+            for (int lat = minLat; lat <= maxLat; lat++) {
+                for (int lon = minLon; lon <= maxLon; lon++) {
+                    Set<DriverID> cell = cells.get(cellKey(lat, lon));
+                    if (cell == null) continue;
+
+                    for (DriverID driverID : cell) {
+                        Ping ping = latest.get(driverID);
+                        if (ping != null) action.accept(driverID, ping);
+                    }
+                }
+            }
+        }
+    }
+
+    private Object stripeOf(DriverID driverID) {
+        return stripes[Math.floorMod(driverID.hashCode(), STRIPES)];
+    }
+
+    private static NearbyDriverDTO nearby(DriverID driverID, double latitude, double longitude, double distance, long seenAt) {
+        return new NearbyDriverDTO(
+                driverID.value().toString(),
+                latitude,
+                longitude,
+                Math.round(distance * 1000) / 1000.0,
+                Instant.ofEpochMilli(seenAt)
+        );
+    }
+
+    private static List<DriverID> drain(Set<DriverID> drivers) {
+        List<DriverID> drained = new ArrayList<>(drivers.size());
+        for (DriverID driverID : drivers)
+            if (drivers.remove(driverID)) drained.add(driverID);
+        return drained;
+    }
+
+    private static long cellOf(double latitude, double longitude) {
+        return cellKey(cellIndex(latitude), cellIndex(longitude));
+    }
+
+    private static int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long cellKey(int lat, int lon) {
+        return ((long) lat << 32) | (lon & 0xFFFFFFFFL);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface PingConsumer {
+        void accept(DriverID driverID, Ping ping);
+    }
+
+    private record Ping(double latitude, double longitude, long cell, long seenAt) {
+    }
+}
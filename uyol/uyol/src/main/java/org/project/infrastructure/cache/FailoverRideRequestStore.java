@@ -0,0 +1,142 @@
+package org.project.infrastructure.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.project.domain.ride.entities.RideRequest;
+import org.project.domain.ride.value_object.RideRequestID;
+import org.project.domain.shared.value_objects.DriverID;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+
+/**
+ * Sends ride requests to Redis and falls back to the in-process store when Redis fails. After a
+ * failure every call stays in process for {@link #RETRY_AFTER_MILLIS} before Redis is tried again.
+ * Requests written during an outage stay in process until they expire, so reads and claims look
+ * in both stores.
+ */
+public class FailoverRideRequestStore implements RideRequestStore {
+
+    private static final Logger log = LoggerFactory.getLogger(FailoverRideRequestStore.class);
+
+    static final long RETRY_AFTER_MILLIS = 10_000;
+
+    private final RideRequests redis;
+    private final InMemoryRideRequests fallback;
+    private final Counter toFallback;
+    private final Counter toRedis;
+
+    private volatile long fallbackUntil;
+    private volatile boolean failedOver;
+
+    public FailoverRideRequestStore(RideRequests redis, InMemoryRideRequests fallback, MeterRegistry meterRegistry) {
+        this.redis = redis;
+        this.fallback = fallback;
+        this.toFallback = Counter.builder("ride_requests.store.switches")
+                .tag("to", "memory")
+                .description("Switches of the ride request store to the in-process fallback")
+                .register(meterRegistry);
+        this.toRedis = Counter.builder("ride_requests.store.switches")
+                .tag("to", "redis")
+                .description("Switches of the ride request store back to Redis")
+                .register(meterRegistry);
+        Gauge.builder("ride_requests.store.fallback", this, store -> store.failedOver ? 1 : 0)
+                .description("1 while ride requests are kept in process")
+                .register(meterRegistry);
+        Gauge.builder("ride_requests.store.fallback.size", fallback, InMemoryRideRequests::size)
+                .description("Ride request copies kept in process")
+                .register(meterRegistry);
+    }
+
+    /* ================= CRUD ================= */
+
+    @Override
+    public boolean isEmpty(DriverID driverID) {
+        return fallback.isEmpty(driverID) && onRedis(() -> redis.isEmpty(driverID), true);
+    }
+
+    @Override
+    public void put(DriverID driverID, RideRequest rideRequest) {
+        broadcast(List.of(driverID), rideRequest);
+    }
+
+    @Override
+    public void broadcast(List<DriverID> driverIDs, RideRequest rideRequest) {
+        boolean sent = onRedis(() -> {
+            redis.broadcast(driverIDs, rideRequest);
+            return true;
+        }, false);
+
+        if (!sent) fallback.broadcast(driverIDs, rideRequest);
+    }
+
+    @Override
+    public Optional<RideRequest> get(DriverID driverID, RideRequestID rideRequestID) {
+        Optional<RideRequest> local = fallback.get(driverID, rideRequestID);
+        if (local.isPresent()) return local;
+
+        return onRedis(() -> redis.get(driverID, rideRequestID), Optional.empty());
+    }
+
+    @Override
+    public Optional<RideRequest> claim(DriverID driverID, RideRequestID rideRequestID) {
+        Optional<RideRequest> local = fallback.claim(driverID, rideRequestID);
+        if (local.isPresent()) return local;
+
+        return onRedis(() -> redis.claim(driverID, rideRequestID), Optional.empty());
+    }
+
+    @Override
+    public List<RideRequest> pageOf(DriverID driverID) {
+        List<RideRequest> local = fallback.pageOf(driverID);
+        List<RideRequest> remote = onRedis(() -> redis.pageOf(driverID), List.of());
+        if (local.isEmpty()) return remote;
+        if (remote.isEmpty()) return local;
+
+        List<RideRequest> merged = new ArrayList<>(remote.size() + local.size());
+        merged.addAll(remote);
+        merged.addAll(local);
+        return merged;
+    }
+
+    /* ================= FAILOVER ================= */
+
+    private <T> T onRedis(Supplier<T> call, T otherwise) {
+        if (!redis.isEnabled()) return otherwise;
+        if (failedOver && System.currentTimeMillis() < fallbackUntil) return otherwise;
+
+        try {
+            T result = call.get();
+            if (failedOver) recovered();
+            return result;
+        } catch (DataAccessException e) {
+            failed(e);
+            return otherwise;
+        }
+    }
+
+    private synchronized void failed(DataAccessException e) {
+        fallbackUntil = System.currentTimeMillis() + RETRY_AFTER_MILLIS;
+        if (failedOver) return;
+
+        failedOver = true;
+        toFallback.increment();
+        log.warn("Redis is unavailable, keeping ride requests in process", e);
+    }
+
+    private synchronized void recovered() {
+        if (!failedOver) return;
+
+        failedOver = false;
+        toRedis.increment();
+        log.info("Redis is back, sending ride requests to Redis again");
+    }
+}
@@ -0,0 +1,153 @@
+package org.project.infrastructure.cache;
+
+import static org.project.application.util.RestUtil.responseException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.function.Supplier;
+
+import org.project.domain.shared.annotations.Nullable;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Responses of retried write requests, keyed by the caller and its {@code Idempotency-Key}.
+ * The first request claims the key, runs and stores its JSON response next to a SHA-256 of its
+ * request; a replay with the same request gets the stored response back without running again,
+ * one with a different request is refused with 422. Redis trouble only costs the protection,
+ * never the request.
+ */
+@Component
+public class IdempotentResponses {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotentResponses.class);
+
+    static final Duration IN_FLIGHT_TTL = Duration.ofSeconds(30);
+
+    static final Duration RESPONSE_TTL = Duration.ofHours(24);
+
+    static final int MAX_KEY_LENGTH = 128;
+
+    private static final String IN_FLIGHT = "-";
+
+    /** Separates the request fingerprint from the stored payload; Base64 never contains it. */
+    private static final char SEPARATOR = ' ';
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public IdempotentResponses(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * Runs the action once per {@code scope}, {@code subject} and {@code idempotencyKey}. Without
+     * a key the action simply runs; a replay while the first request is still running answers 409,
+     * and a replay whose {@code request} differs from the first one answers 422.
+     */
+    public <T> T once(
+            String scope,
+            String subject,
+            @Nullable String idempotencyKey,
+            Object request,
+            Class<T> type,
+            Supplier<T> action
+    ) {
+        if (idempotencyKey == null) return action.get();
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH)
+            throw responseException(HttpStatus.BAD_REQUEST, "Idempotency-Key must be 1 to 128 characters long.");
+
+        String redisKey = key(scope, subject, idempotencyKey);
+        String fingerprint = fingerprint(request);
+
+        Boolean claimed;
+        String stored;
+        try {
+            claimed = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(redisKey, fingerprint + SEPARATOR + IN_FLIGHT, IN_FLIGHT_TTL);
+            stored = Boolean.TRUE.equals(claimed) ? null : stringRedisTemplate.opsForValue().get(redisKey);
+        } catch (RuntimeException e) {
+            log.warn("Idempotency store is unavailable, running {} without it", scope, e);
+            return action.get();
+        }
+
+        if (!Boolean.TRUE.equals(claimed) && stored != null) {
+            int separator = stored.indexOf(SEPARATOR);
+            if (separator < 0 || !fingerprint.equals(stored.substring(0, separator)))
+                throw responseException(
+                        HttpStatus.UNPROCESSABLE_CONTENT,
+                        "This Idempotency-Key was already used with a different request."
+                );
+
+            String payload = stored.substring(separator + 1);
+            if (IN_FLIGHT.equals(payload))
+                throw responseException(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed.");
+
+            return replay(payload, type);
+        }
+
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            forget(redisKey);
+            throw e;
+        }
+
+        store(redisKey, fingerprint, response);
+        return response;
+    }
+
+    /* ================= INTERNALS ================= */
+
+    private <T> T replay(String stored, Class<T> type) {
+        try {
+            return objectMapper.readValue(stored, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response cannot be read as " + type.getSimpleName(), e);
+        }
+    }
+
+    private void store(String redisKey, String fingerprint, Object response) {
+        try {
+            String payload = objectMapper.writeValueAsString(response);
+            stringRedisTemplate.opsForValue().set(redisKey, fingerprint + SEPARATOR + payload, RESPONSE_TTL);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Unable to store response for idempotency key {}", redisKey, e);
+            forget(redisKey);
+        }
+    }
+
+    /** SHA-256 of the request as JSON, so the same form replays and a changed one does not. */
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Request cannot be fingerprinted", e);
+        }
+    }
+
+    private void forget(String redisKey) {
+        try {
+            stringRedisTemplate.delete(redisKey);
+        } catch (RuntimeException e) {
+            log.warn("Unable to release idempotency key {}", redisKey, e);
+        }
+    }
+
+    /* ================= KEYS ================= */
+
+    private static String key(String scope, String subject, String idempotencyKey) {
+        return "idempotency:" + scope + ":{" + subject + "}:" + idempotencyKey;
+    }
+}
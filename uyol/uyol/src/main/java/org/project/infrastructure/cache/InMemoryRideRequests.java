@@ -0,0 +1,192 @@
+package org.project.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.project.domain.ride.entities.RideRequest;
+import org.project.domain.ride.value_object.RideRequestID;
+import org.project.domain.shared.value_objects.DriverID;
+
+/**
+ * Ride request inboxes kept in this process, for when Redis is not there. Every inbox is a
+ * concurrent map of request id to request and deadline; expired requests are dropped whenever an
+ * inbox is read and by a sweep every {@link #SWEEP_EVERY}. The number of stored copies is capped
+ * at {@link #MAX_REQUESTS} overall and {@link #MAX_PER_DRIVER} per driver; sending past a cap is
+ * rejected instead of growing the heap. Nothing here is shared between nodes.
+ */
+public class InMemoryRideRequests implements RideRequestStore {
+
+    static final int MAX_REQUESTS = 50_000;
+
+    static final int MAX_PER_DRIVER = 256;
+
+    static final Duration SWEEP_EVERY = Duration.ofSeconds(30);
+
+    private final Map<DriverID, Map<RideRequestID, Entry>> inboxes = new ConcurrentHashMap<>();
+    private final Map<RideRequestID, Recipients> recipients = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Duration ttl;
+    private final ScheduledExecutorService sweeper;
+
+    public InMemoryRideRequests(Duration ttl) {
+        this.ttl = ttl;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ride-requests-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sweeper.scheduleWithFixedDelay(
+                this::sweep,
+                SWEEP_EVERY.toMillis(),
+                SWEEP_EVERY.toMillis(),
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    /* ================= CRUD ================= */
+
+    @Override
+    public boolean isEmpty(DriverID driverID) {
+        Map<RideRequestID, Entry> inbox = inboxes.get(driverID);
+        if (inbox == null) return true;
+
+        long now = System.currentTimeMillis();
+        return inbox.values().stream().noneMatch(entry -> entry.deadline > now);
+    }
+
+    @Override
+    public void put(DriverID driverID, RideRequest rideRequest) {
+        broadcast(List.of(driverID), rideRequest);
+    }
+
+    @Override
+    public void broadcast(List<DriverID> driverIDs, RideRequest rideRequest) {
+        if (driverIDs.isEmpty() || driverIDs.size() > MAX_RECIPIENTS)
+            throw new IllegalArgumentException("Invalid count of recipients: " + driverIDs.size());
+
+        if (size.get() + driverIDs.size() > MAX_REQUESTS) sweep();
+        if (size.get() + driverIDs.size() > MAX_REQUESTS)
+            throw new RejectedExecutionException("Ride request store is full");
+
+        long now = System.currentTimeMillis();
+        for (DriverID driverID : driverIDs) {
+            Map<RideRequestID, Entry> inbox = inboxes.get(driverID);
+            if (inbox != null && inbox.size() >= MAX_PER_DRIVER) sweep(inbox, now);
+            if (inbox != null && inbox.size() >= MAX_PER_DRIVER)
+                throw new RejectedExecutionException("Ride request inbox of the driver is full");
+        }
+
+        long deadline = now + ttl.toMillis();
+        recipients.put(rideRequest.id(), new Recipients(Set.copyOf(driverIDs), deadline));
+
+        for (DriverID driverID : driverIDs) {
+            Entry entry = new Entry(rideRequest.withDriver(driverID), deadline);
+            inboxes.compute(driverID, (id, inbox) -> {
+                if (inbox == null) inbox = new ConcurrentHashMap<>();
+                if (inbox.put(rideRequest.id(), entry) == null) size.incrementAndGet();
+                return inbox;
+            });
+        }
+    }
+
+    @Override
+    public Optional<RideRequest> get(DriverID driverID, RideRequestID rideRequestID) {
+        Map<RideRequestID, Entry> inbox = inboxes.get(driverID);
+        if (inbox == null) return Optional.empty();
+
+        Entry entry = inbox.get(rideRequestID);
+        if (entry == null) return Optional.empty();
+        if (entry.deadline <= System.currentTimeMillis()) {
+            remove(driverID, rideRequestID);
+            return Optional.empty();
+        }
+        return Optional.of(entry.rideRequest);
+    }
+
+    @Override
+    public Optional<RideRequest> claim(DriverID driverID, RideRequestID rideRequestID) {
+        Recipients others = recipients.get(rideRequestID);
+
+        // only the caller that removes the recipients wins the request
+        if (others == null || !others.drivers.contains(driverID) || !recipients.remove(rideRequestID, others)) {
+            remove(driverID, rideRequestID);
+            return Optional.empty();
+        }
+
+        Entry entry = remove(driverID, rideRequestID);
+        for (DriverID other : others.drivers)
+            if (!other.equals(driverID)) remove(other, rideRequestID);
+
+        if (entry == null || entry.deadline <= System.currentTimeMillis()) return Optional.empty();
+        return Optional.of(entry.rideRequest);
+    }
+
+    @Override
+    public List<RideRequest> pageOf(DriverID driverID) {
+        Map<RideRequestID, Entry> inbox = inboxes.get(driverID);
+        if (inbox == null) return List.of();
+
+        sweep(inbox, System.currentTimeMillis());
+        return inbox.values().stream()
+                .sorted(Comparator.comparingLong(Entry::deadline))
+                .map(Entry::rideRequest)
+                .toList();
+    }
+
+    /* ================= EVICTION ================= */
+
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        for (DriverID driverID : inboxes.keySet()) {
+            inboxes.computeIfPresent(driverID, (id, inbox) -> {
+                sweep(inbox, now);
+                return inbox.isEmpty() ? null : inbox;
+            });
+        }
+        recipients.values().removeIf(others -> others.deadline <= now);
+    }
+
+    private void sweep(Map<RideRequestID, Entry> inbox, long now) {
+        List<RideRequestID> expired = new ArrayList<>();
+        inbox.forEach((id, entry) -> {
+            if (entry.deadline <= now) expired.add(id);
+        });
+
+        for (RideRequestID id : expired)
+            if (inbox.remove(id) != null) size.decrementAndGet();
+    }
+
+    private Entry remove(DriverID driverID, RideRequestID rideRequestID) {
+        Map<RideRequestID, Entry> inbox = inboxes.get(driverID);
+        if (inbox == null) return null;
+
+        Entry removed = inbox.remove(rideRequestID);
+        if (removed != null) size.decrementAndGet();
+        return removed;
+    }
+
+    private record Entry(RideRequest rideRequest, long deadline) {
+    }
+
+    private record Recipients(Set<DriverID> drivers, long deadline) {
+    }
+}
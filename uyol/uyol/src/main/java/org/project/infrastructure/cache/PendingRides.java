@@ -0,0 +1,307 @@
+package org.project.infrastructure.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.project.application.dto.ride.RideDTO;
+import org.project.domain.ride.entities.Ride;
+import org.project.domain.ride.enumerations.RideStatus;
+import org.project.domain.ride.repositories.RideRepository;
+import org.project.domain.ride.value_object.Location;
+import org.project.domain.ride.value_object.RideID;
+import org.project.domain.ride.value_object.SearchRadius;
+import org.project.domain.shared.annotations.Nullable;
+import org.project.domain.shared.containers.Result;
+import org.project.domain.shared.value_objects.PageCursor;
+import org.project.domain.shared.value_objects.Pageable;
+
+import com.hadzhy.jetquerious.exceptions.NotFoundException;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process index of PENDING rides, bucketed by start date and by a coarse lat/lon grid
+ * over the ride origin. Answers {@code actualFor} searches without touching the ride table
+ * once it has been warmed from the repository. Every change made on a node is announced on
+ * {@link #CHANNEL}; the other nodes read that ride again, so they apply its latest state even
+ * when announcements arrive out of order. Rides whose start time has passed are pruned every
+ * {@link #PRUNE_EVERY_MILLIS}.
+ */
+@Component
+public class PendingRides implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PendingRides.class);
+
+    public static final String CHANNEL = "pending_rides:changes";
+
+    static final double CELL_DEGREES = 1.0;
+
+    static final long PRUNE_EVERY_MILLIS = 60_000;
+
+    private static final Comparator<RideDTO> SEARCH_ORDER =
+            Comparator.comparing(RideDTO::startTime).thenComparing(RideDTO::id);
+
+    private final String node = UUID.randomUUID().toString();
+    private final RideRepository rideRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ScheduledExecutorService pruner;
+
+    private final ConcurrentSkipListMap<LocalDate, Map<Long, Set<RideDTO>>> days = new ConcurrentSkipListMap<>();
+    private final Map<String, RideDTO> rides = new ConcurrentHashMap<>();
+    private final Set<String> removedDuringWarmUp = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean warmingUp;
+    private volatile boolean warm;
+
+    public PendingRides(RideRepository rideRepository, StringRedisTemplate stringRedisTemplate) {
+        this.rideRepository = rideRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.pruner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pending-rides-pruner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pruner.scheduleWithFixedDelay(this::prune, PRUNE_EVERY_MILLIS, PRUNE_EVERY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pruner.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread.startVirtualThread(this::load);
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /* ================= UPDATES ================= */
+
+    /** Applies a created or changed ride here and announces it to the other nodes. */
+    public void put(Ride ride) {
+        apply(RideDTO.from(ride));
+
+        String id = ride.id().value().toString();
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, node + ":" + id);
+        } catch (RuntimeException e) {
+            log.warn("Unable to announce change of ride {}, other nodes keep their copy of it", id, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, @Nullable byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 2);
+        if (parts.length != 2 || parts[0].equals(node)) return;
+
+        RideID rideID;
+        try {
+            rideID = RideID.fromString(parts[1]);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed pending ride change", e);
+            return;
+        }
+
+        Result<Ride, Throwable> ride = rideRepository.findBy(rideID);
+        if (ride.success()) {
+            apply(RideDTO.from(ride.value()));
+            return;
+        }
+
+        // better to miss a ride in searches than to offer one whose state is unknown
+        if (!(ride.throwable() instanceof NotFoundException))
+            log.warn("Unable to read changed ride {}, dropping it from the index", parts[1], ride.throwable());
+        remove(parts[1]);
+    }
+
+    private void apply(RideDTO ride) {
+        boolean pending = ride.status() == RideStatus.PENDING && ride.startTime().isAfter(LocalDateTime.now());
+        rides.compute(ride.id(), (id, previous) -> {
+            if (previous != null) unlink(previous);
+            if (!pending) return null;
+
+            link(ride);
+            return ride;
+        });
+
+        if (warmingUp && !pending)
+            removedDuringWarmUp.add(ride.id());
+    }
+
+    private void remove(String rideID) {
+        rides.computeIfPresent(rideID, (id, previous) -> {
+            unlink(previous);
+            return null;
+        });
+
+        if (warmingUp) removedDuringWarmUp.add(rideID);
+    }
+
+    /* ================= SEARCH ================= */
+
+    public List<RideDTO> actualFor(
+            Location startPoint,
+            Location destination,
+            SearchRadius radius,
+            LocalDate date,
+            Pageable page
+    ) {
+        evictPastDays();
+
+        PageCursor after = page.cursor().orElse(null);
+        LocalDateTime from = after == null ? date.atStartOfDay() : after.keyAsDateTime();
+        int wanted = page.offset() + page.limit();
+        List<RideDTO> found = new ArrayList<>();
+
+        for (Map<Long, Set<RideDTO>> day : days.tailMap(from.toLocalDate(), true).values()) {
+            List<RideDTO> ofDay = new ArrayList<>();
+
+            forEachCellAround(startPoint, radius, day, ride -> {
+                if (!ride.startTime().isBefore(from)
+                        && (after == null || ride.startTime().isAfter(from) || ride.id().compareTo(after.id()) > 0)
+                        && radius.contains(startPoint, ride.fromLatitude(), ride.fromLongitude())
+                        && radius.contains(destination, ride.toLatitude(), ride.toLongitude()))
+                    ofDay.add(ride);
+            });
+
+            ofDay.sort(SEARCH_ORDER);
+            found.addAll(ofDay);
+            if (found.size() >= wanted) break;
+        }
+
+        if (found.size() <= page.offset()) return List.of();
+        return List.copyOf(found.subList(page.offset(), Math.min(wanted, found.size())));
+    }
+
+    /* ================= INTERNALS ================= */
+
+    private void load() {
+        warmingUp = true;
+        try {
+            List<RideDTO> pending = rideRepository.pendingFrom(LocalDate.now())
+                    .orElseThrow(() -> new IllegalStateException("Unable to read pending rides"));
+
+            for (RideDTO ride : pending) {
+                if (removedDuringWarmUp.contains(ride.id())) continue;
+
+                rides.computeIfAbsent(ride.id(), id -> {
+                    link(ride);
+                    return ride;
+                });
+            }
+
+            warm = true;
+            log.info("Pending rides index warmed with {} rides", pending.size());
+        } catch (RuntimeException e) {
+            log.error("Unable to warm pending rides index, searches will use the database", e);
+        } finally {
+            warmingUp = false;
+            removedDuringWarmUp.clear();
+        }
+    }
+
+    private void link(RideDTO ride) {
+        days.computeIfAbsent(ride.startTime().toLocalDate(), date -> new ConcurrentHashMap<>())
+                .computeIfAbsent(cellOf(ride.fromLatitude(), ride.fromLongitude()), cell -> ConcurrentHashMap.newKeySet())
+                .add(ride);
+    }
+
+    private void unlink(RideDTO ride) {
+        Map<Long, Set<RideDTO>> day = days.get(ride.startTime().toLocalDate());
+        if (day == null) return;
+
+        Set<RideDTO> cell = day.get(cellOf(ride.fromLatitude(), ride.fromLongitude()));
+        if (cell != null) cell.remove(ride);
+    }
+
+    private void evictPastDays() {
+        Map<LocalDate, Map<Long, Set<RideDTO>>> past = days.headMap(LocalDate.now());
+        if (past.isEmpty()) return;
+
+        past.values().forEach(day -> day.values().forEach(cell -> cell.forEach(ride -> rides.remove(ride.id(), ride))));
+        past.clear();
+    }
+
+    /** Drops past days, rides of today that already started, and the cells and days left empty. */
+    private void prune() {
+        try {
+            evictPastDays();
+
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, Set<RideDTO>> today = days.get(now.toLocalDate());
+            if (today != null) {
+                today.values().forEach(cell -> cell.removeIf(ride -> {
+                    if (ride.startTime().isAfter(now)) return false;
+
+                    rides.remove(ride.id(), ride);
+                    return true;
+                }));
+            }
+
+            days.forEach((date, day) -> {
+                day.values().removeIf(Set::isEmpty);
+                if (day.isEmpty()) days.remove(date, day);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Pending rides prune failed", e);
+        }
+    }
+
+    private static void forEachCellAround(
+            Location point,
+            SearchRadius radius,
+            Map<Long, Set<RideDTO>> day,
+            Consumer<RideDTO> action
+    ) {
+        int minLat = cellIndex(point.latitude() - radius.latitudeDelta());
+        int maxLat = cellIndex(point.latitude() + radius.latitudeDelta());
+
+        for (SearchRadius.LongitudeRange range : radius.longitudeRanges(point.latitude(), point.longitude())) {
+            int minLon = cellIndex(range.min());
+            int maxLon = cellIndex(range.max());
+            for (int lat = minLat; lat <= maxLat; lat++) {
+                for (int lon = minLon; lon <= maxLon; lon++) {
+                    Set<RideDTO> cell = day.get(cellKey(lat, lon));
+                    if (cell != null) cell.forEach(action);
+                }
+            }
+        }
+    }
+
+    private static long cellOf(double latitude, double longitude) {
+        return cellKey(cellIndex(latitude), cellIndex(longitude));
+    }
+
+    private static int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long cellKey(int lat, int lon) {
+        return ((long) lat << 32) | (lon & 0xFFFFFFFFL);
+    }
+}
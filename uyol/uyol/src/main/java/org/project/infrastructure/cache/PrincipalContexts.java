@@ -0,0 +1,126 @@
+package org.project.infrastructure.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.project.domain.shared.annotations.Nullable;
+import org.project.domain.shared.containers.Result;
+import org.project.domain.shared.value_objects.UserID;
+import org.project.domain.user.factories.IdentifierFactory;
+import org.project.domain.user.repositories.UserRepository;
+import org.project.domain.user.value_objects.PrincipalContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Resolves the caller of a request to a {@link PrincipalContext} with one joined query instead of
+ * a user lookup followed by driver and owner lookups. The context is kept on the request, so the
+ * services a request goes through share it, and in a near-cache of at most {@link #MAX_ENTRIES}
+ * accounts for {@link #FRESH_FOR_MILLIS}. Registering a driver or owner account calls
+ * {@link #invalidate}, which drops the account here and, through {@link #CHANNEL}, on every other
+ * node; the short freshness bounds how stale a node can be if that message is lost.
+ */
+@Component
+public class PrincipalContexts implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PrincipalContexts.class);
+
+    public static final String CHANNEL = "principals:invalidations";
+
+    static final int MAX_ENTRIES = 50_000;
+
+    static final long FRESH_FOR_MILLIS = 30_000;
+
+    private static final String REQUEST_ATTRIBUTE = PrincipalContexts.class.getName();
+
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final UserRepository userRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public PrincipalContexts(UserRepository userRepository, StringRedisTemplate stringRedisTemplate) {
+        this.userRepository = userRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /* ================= RESOLVE ================= */
+
+    public Result<PrincipalContext, Throwable> resolve(String identifier) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null
+                && request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Entry resolved
+                && resolved.identifier.equals(identifier))
+            return Result.success(resolved.context);
+
+        long now = System.currentTimeMillis();
+        Entry cached = cache.get(identifier);
+        if (cached != null && now - cached.loadedAt <= FRESH_FOR_MILLIS) return onRequest(request, cached);
+
+        long generation = invalidations.get();
+        Result<PrincipalContext, Throwable> loaded = userRepository.findPrincipal(IdentifierFactory.from(identifier));
+        if (!loaded.success()) {
+            cache.remove(identifier);
+            return loaded;
+        }
+
+        Entry entry = new Entry(identifier, loaded.value(), now);
+        if (cache.size() >= MAX_ENTRIES) evictStale(now);
+        // an invalidation that raced with the query may concern this account, so do not keep it
+        if (cache.size() < MAX_ENTRIES && invalidations.get() == generation) cache.put(identifier, entry);
+        return onRequest(request, entry);
+    }
+
+    /* ================= INVALIDATION ================= */
+
+    /** Drops the account everywhere after a change of its roles. */
+    public void invalidate(UserID userID) {
+        forget(userID);
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) request.removeAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, userID.value().toString());
+        } catch (RuntimeException e) {
+            log.warn("Unable to publish invalidation of principal {}, other nodes keep it for up to {} ms",
+                    userID.value(), FRESH_FOR_MILLIS, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, @Nullable byte[] pattern) {
+        try {
+            forget(UserID.fromString(new String(message.getBody(), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed principal invalidation", e);
+        }
+    }
+
+    /* ================= INTERNALS ================= */
+
+    private void forget(UserID userID) {
+        invalidations.incrementAndGet();
+        cache.values().removeIf(entry -> entry.context.userID().equals(userID));
+    }
+
+    private void evictStale(long now) {
+        cache.values().removeIf(entry -> now - entry.loadedAt > FRESH_FOR_MILLIS);
+    }
+
+    private static Result<PrincipalContext, Throwable> onRequest(@Nullable RequestAttributes request, Entry entry) {
+        if (request != null) request.setAttribute(REQUEST_ATTRIBUTE, entry, RequestAttributes.SCOPE_REQUEST);
+        return Result.success(entry.context);
+    }
+
+    private record Entry(String identifier, PrincipalContext context, long loadedAt) {
+    }
+}
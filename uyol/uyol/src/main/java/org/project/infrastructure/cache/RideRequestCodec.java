@@ -0,0 +1,222 @@
+package org.project.infrastructure.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.project.domain.fleet.value_objects.LicensePlate;
+import org.project.domain.ride.entities.RideRequest;
+import org.project.domain.ride.enumerations.RideRule;
+import org.project.domain.ride.value_object.Location;
+import org.project.domain.ride.value_object.Price;
+import org.project.domain.ride.value_object.RideDesc;
+import org.project.domain.ride.value_object.RideRequestID;
+import org.project.domain.ride.value_object.RideTime;
+import org.project.domain.ride.value_object.Route;
+import org.project.domain.ride.value_object.SeatMap;
+import org.project.domain.shared.exceptions.DomainException;
+import org.project.domain.shared.value_objects.DriverID;
+import org.project.domain.shared.value_objects.OwnerID;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Binary form of a {@link RideRequest}: ids as raw UUID longs, times as epoch seconds plus nanos,
+ * the price as scale and unscaled bytes, the seat map as its bitmasks and the rules as a counted
+ * list of their names, so reordering {@link RideRule} never changes what a stored request means.
+ * A request that no longer passes domain validation (e.g. its trip already started) decodes to
+ * {@code null}, which {@link RideRequests} treats as gone; so does one written in another encoding
+ * version, which is logged and counted. A rule this node does not know is skipped.
+ */
+public class RideRequestCodec implements RedisSerializer<RideRequest> {
+
+    private static final Logger log = LoggerFactory.getLogger(RideRequestCodec.class);
+
+    static final byte VERSION = 1;
+
+    private final DistributionSummary encodedBytes;
+    private final Counter versionMismatches;
+    private final Timer encodeTime;
+    private final Timer decodeTime;
+
+    public RideRequestCodec(MeterRegistry meterRegistry) {
+        this.encodedBytes = DistributionSummary.builder("ride_requests.codec.size")
+                .baseUnit("bytes")
+                .description("Serialized size of a ride request")
+                .register(meterRegistry);
+        this.versionMismatches = Counter.builder("ride_requests.codec.version_mismatch")
+                .description("Stored ride requests skipped because another encoding version wrote them")
+                .register(meterRegistry);
+        this.encodeTime = Timer.builder("ride_requests.codec.time")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.decodeTime = Timer.builder("ride_requests.codec.time")
+                .tag("operation", "decode")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] serialize(RideRequest rideRequest) throws SerializationException {
+        if (rideRequest == null) return null;
+
+        long start = System.nanoTime();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(192);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeUUID(out, rideRequest.id().value());
+            writeUUID(out, rideRequest.driverID().value());
+            writeUUID(out, rideRequest.ownerID().value());
+            out.writeUTF(rideRequest.licensePlate().value());
+
+            writeLocation(out, rideRequest.route().from());
+            writeLocation(out, rideRequest.route().to());
+
+            writeDateTime(out, rideRequest.rideTime().startOfTheTrip());
+            writeDateTime(out, rideRequest.rideTime().endOfTheTrip());
+
+            BigDecimal price = rideRequest.price().amount();
+            byte[] unscaled = price.unscaledValue().toByteArray();
+            if (price.scale() < Byte.MIN_VALUE || price.scale() > Byte.MAX_VALUE || unscaled.length > 255)
+                throw new SerializationException("Price of ride request " + rideRequest.id().value() + " is out of range");
+            out.writeByte(price.scale());
+            out.writeByte(unscaled.length);
+            out.write(unscaled);
+
+            SeatMap seatMap = rideRequest.seatMap();
+            out.writeByte(seatMap.rowCount());
+            out.writeByte(seatMap.columnCount());
+            out.writeLong(seatMap.occupiedBits());
+            out.writeLong(seatMap.kindLowBits());
+            out.writeLong(seatMap.kindHighBits());
+
+            out.writeBoolean(rideRequest.rideDesc() != null);
+            if (rideRequest.rideDesc() != null) out.writeUTF(rideRequest.rideDesc().value());
+
+            out.writeByte(rideRequest.rideRules().size());
+            for (RideRule rule : rideRequest.rideRules()) out.writeUTF(rule.name());
+
+            writeDateTime(out, rideRequest.createdAt());
+        } catch (IOException e) {
+            throw new SerializationException("Unable to encode ride request " + rideRequest.id().value(), e);
+        }
+
+        byte[] encoded = bytes.toByteArray();
+        encodeTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        encodedBytes.record(encoded.length);
+        return encoded;
+    }
+
+    @Override
+    public RideRequest deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) return null;
+
+        long start = System.nanoTime();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                versionMismatches.increment();
+                log.warn("Skipping ride request encoded with version {}, this node reads version {}", version, VERSION);
+                return null;
+            }
+
+            RideRequestID id = new RideRequestID(readUUID(in));
+            DriverID driverID = new DriverID(readUUID(in));
+            OwnerID ownerID = new OwnerID(readUUID(in));
+            LicensePlate licensePlate = new LicensePlate(in.readUTF());
+
+            Route route = new Route(readLocation(in), readLocation(in));
+            RideTime rideTime = new RideTime(readDateTime(in), readDateTime(in));
+
+            int scale = in.readByte();
+            byte[] unscaled = new byte[in.readUnsignedByte()];
+            in.readFully(unscaled);
+            Price price = new Price(new BigDecimal(new BigInteger(unscaled), scale));
+
+            SeatMap seatMap = SeatMap.fromBits(
+                    in.readUnsignedByte(),
+                    in.readUnsignedByte(),
+                    in.readLong(),
+                    in.readLong(),
+                    in.readLong()
+            );
+
+            RideDesc rideDesc = in.readBoolean() ? new RideDesc(in.readUTF()) : null;
+
+            int rules = in.readUnsignedByte();
+            Set<RideRule> rideRules = EnumSet.noneOf(RideRule.class);
+            for (int i = 0; i < rules; i++) {
+                String name = in.readUTF();
+                for (RideRule rule : RideRule.values())
+                    if (rule.name().equals(name)) rideRules.add(rule);
+            }
+
+            return new RideRequest(
+                    id,
+                    driverID,
+                    ownerID,
+                    licensePlate,
+                    route,
+                    rideTime,
+                    price,
+                    seatMap,
+                    rideDesc,
+                    rideRules,
+                    readDateTime(in)
+            );
+        } catch (DomainException | IllegalArgumentException e) {
+            return null;
+        } catch (IOException e) {
+            throw new SerializationException("Unable to decode ride request", e);
+        } finally {
+            decodeTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /* ================= INTERNALS ================= */
+
+    private static void writeUUID(DataOutputStream out, UUID value) throws IOException {
+        out.writeLong(value.getMostSignificantBits());
+        out.writeLong(value.getLeastSignificantBits());
+    }
+
+    private static UUID readUUID(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writeLocation(DataOutputStream out, Location location) throws IOException {
+        out.writeUTF(location.description());
+        out.writeDouble(location.latitude());
+        out.writeDouble(location.longitude());
+    }
+
+    private static Location readLocation(DataInputStream in) throws IOException {
+        return new Location(in.readUTF(), in.readDouble(), in.readDouble());
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime dateTime) throws IOException {
+        out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(dateTime.getNano());
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,30 @@
+package org.project.infrastructure.cache;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.project.domain.ride.entities.RideRequest;
+import org.project.domain.ride.value_object.RideRequestID;
+import org.project.domain.shared.value_objects.DriverID;
+
+/**
+ * Driver inboxes of pending ride requests. Requests live for a fixed time after they are sent
+ * and a request sent to several drivers can be claimed by only one of them.
+ */
+public interface RideRequestStore {
+
+    int MAX_RECIPIENTS = 20;
+
+    boolean isEmpty(DriverID driverID);
+
+    void put(DriverID driverID, RideRequest rideRequest);
+
+    void broadcast(List<DriverID> driverIDs, RideRequest rideRequest);
+
+    Optional<RideRequest> get(DriverID driverID, RideRequestID rideRequestID);
+
+    /** Takes the request for this driver and withdraws it from every other driver it was sent to. */
+    Optional<RideRequest> claim(DriverID driverID, RideRequestID rideRequestID);
+
+    List<RideRequest> pageOf(DriverID driverID);
+}
@@ -1,21 +1,86 @@
 package org.project.infrastructure.cache;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 import org.project.domain.ride.entities.RideRequest;
 import org.project.domain.ride.value_object.RideRequestID;
+import org.project.domain.shared.annotations.Nullable;
 import org.project.domain.shared.value_objects.DriverID;
+import org.project.domain.shared.value_objects.OwnerID;
 
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.stereotype.Component;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
-public class RideRequests {
+/**
+ * Inbox of ride requests per driver: a hash of request id to request, plus a sorted set of
+ * request id by deadline. Expired requests are swept by score inside the same script that reads
+ * the inbox, so a driver's read is one round trip that never scans the keyspace.
+ * The template's hash value serializer is used for the stored requests. A request broadcast to
+ * several drivers also keeps its recipient set, which {@link #claim} uses to withdraw the other
+ * copies atomically; that script touches several drivers' keys, so it needs a non-clustered Redis.
+ * Deliveries and withdrawals are published on {@link #EVENTS_CHANNEL} for live push, and a
+ * {@link #watchKey} per request lets owners learn about expiry.
+ */
+public class RideRequests implements RideRequestStore {
 
-    private static final Duration TTL = Duration.ofSeconds(300);
+    public static final Duration TTL = Duration.ofSeconds(300);
+
+    public static final String EVENTS_CHANNEL = "ride_requests:events";
+
+    public static final String DELIVERED = "delivered";
+
+    public static final String WITHDRAWN = "withdrawn";
+
+    private static final String WATCH_PREFIX = "ride_request_watch:{";
+
+    /** KEYS: inbox, deadlines. ARGV: now ms. Sweeps expired requests and returns the live ones. */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SWEEP_AND_LIST = RedisScript.of("""
+            local expired = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[1])
+            for i = 1, #expired, 512 do
+              redis.call('HDEL', KEYS[1], unpack(expired, i, math.min(i + 511, #expired)))
+            end
+            if #expired > 0 then redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', ARGV[1]) end
+            return redis.call('HVALS', KEYS[1])
+            """, List.class);
+
+    /** KEYS: inbox, deadlines. ARGV: id, now ms. The request when it has not expired yet. */
+    private static final RedisScript<RideRequest> GET = RedisScript.of("""
+            local deadline = redis.call('ZSCORE', KEYS[2], ARGV[1])
+            if not deadline or tonumber(deadline) <= tonumber(ARGV[2]) then return false end
+            return redis.call('HGET', KEYS[1], ARGV[1])
+            """, RideRequest.class);
+
+    /**
+     * KEYS: recipients, then inbox and deadlines of the claiming driver followed by those of every
+     * other recipient. ARGV: id, now ms, claiming driver id. The first recipient to claim gets the
+     * live request and it is removed from every inbox; later claims get nothing.
+     */
+    private static final RedisScript<RideRequest> CLAIM = RedisScript.of("""
+            if redis.call('SREM', KEYS[1], ARGV[3]) == 0 then
+              redis.call('HDEL', KEYS[2], ARGV[1])
+              redis.call('ZREM', KEYS[3], ARGV[1])
+              return false
+            end
+            local deadline = redis.call('ZSCORE', KEYS[3], ARGV[1])
+            local request = redis.call('HGET', KEYS[2], ARGV[1])
+            redis.call('DEL', KEYS[1])
+            for i = 2, #KEYS, 2 do
+              redis.call('HDEL', KEYS[i], ARGV[1])
+              redis.call('ZREM', KEYS[i + 1], ARGV[1])
+            end
+            if not deadline or tonumber(deadline) <= tonumber(ARGV[2]) then return false end
+            return request
+            """, RideRequest.class);
 
     private final RedisTemplate<String, RideRequest> redisTemplate;
     private final StringRedisTemplate stringRedisTemplate;
@@ -34,55 +99,185 @@ public class RideRequests {
         return redisTemplate != null && stringRedisTemplate != null;
     }
 
+    @Override
     public boolean isEmpty(DriverID driverID) {
         if (!isEnabled()) return true;
-        return pageOf(driverID).isEmpty();
+
+        Long live = stringRedisTemplate.opsForZSet()
+                .count(deadlinesKey(driverID), System.currentTimeMillis() + 1, Double.POSITIVE_INFINITY);
+        return live == null || live == 0;
     }
 
     /* ================= CRUD ================= */
 
+    @Override
     public void put(DriverID driverID, RideRequest rideRequest) {
+        broadcast(List.of(driverID), rideRequest);
+    }
+
+    /**
+     * Delivers the request to every driver's inbox, each copy addressed to its driver, and records
+     * the recipients so that {@link #claim} lets only one of them take it. One pipelined round trip.
+     */
+    @Override
+    public void broadcast(List<DriverID> driverIDs, RideRequest rideRequest) {
         if (!isEnabled()) return;
+        if (driverIDs.isEmpty() || driverIDs.size() > MAX_RECIPIENTS)
+            throw new IllegalArgumentException("Invalid count of recipients: " + driverIDs.size());
+
+        byte[] id = bytes(rideRequest.id().value().toString());
+        byte[] recipients = bytes(recipientsKey(rideRequest.id()));
+        double deadline = System.currentTimeMillis() + TTL.toMillis();
 
-        String redisKey = key(driverID, rideRequest.id());
-        redisTemplate.opsForValue().set(redisKey, rideRequest, TTL);
+        byte[][] drivers = new byte[driverIDs.size()][];
+        byte[][] requests = new byte[driverIDs.size()][];
+        for (int i = 0; i < driverIDs.size(); i++) {
+            drivers[i] = bytes(driverIDs.get(i).value().toString());
+            requests[i] = codec().serialize(rideRequest.withDriver(driverIDs.get(i)));
+        }
+
+        byte[] watch = bytes(watchKey(rideRequest.id(), rideRequest.ownerID()));
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.setCommands().sAdd(recipients, drivers);
+            connection.keyCommands().pExpire(recipients, TTL.toMillis());
+            connection.stringCommands().pSetEx(watch, TTL.toMillis(), drivers[0]);
+
+            for (int i = 0; i < driverIDs.size(); i++) {
+                byte[] inbox = bytes(inboxKey(driverIDs.get(i)));
+                byte[] deadlines = bytes(deadlinesKey(driverIDs.get(i)));
+
+                connection.hashCommands().hSet(inbox, id, requests[i]);
+                connection.zSetCommands().zAdd(deadlines, deadline, id);
+                connection.keyCommands().pExpire(inbox, TTL.toMillis());
+                connection.keyCommands().pExpire(deadlines, TTL.toMillis());
+                connection.publish(bytes(EVENTS_CHANNEL), bytes(event(DELIVERED, driverIDs.get(i), rideRequest.id())));
+            }
+            return null;
+        });
     }
 
+    @Override
     public Optional<RideRequest> get(DriverID driverID, RideRequestID rideRequestID) {
         if (!isEnabled()) return Optional.empty();
 
-        return Optional.ofNullable(
-                redisTemplate.opsForValue().get(key(driverID, rideRequestID))
-        );
+        return Optional.ofNullable(redisTemplate.execute(
+                GET,
+                RedisSerializer.byteArray(),
+                codec(),
+                keys(driverID),
+                bytes(rideRequestID.value().toString()),
+                bytes(Long.toString(System.currentTimeMillis()))
+        ));
     }
 
-    public Optional<RideRequest> del(DriverID driverID, RideRequestID rideRequestID) {
+    @Override
+    public Optional<RideRequest> claim(DriverID driverID, RideRequestID rideRequestID) {
         if (!isEnabled()) return Optional.empty();
 
-        String redisKey = key(driverID, rideRequestID);
-        RideRequest value = redisTemplate.opsForValue().get(redisKey);
-        redisTemplate.delete(redisKey);
-        return Optional.ofNullable(value);
+        String recipients = recipientsKey(rideRequestID);
+        Set<String> others = stringRedisTemplate.opsForSet().members(recipients);
+
+        List<DriverID> withdrawn = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        keys.add(recipients);
+        keys.addAll(keys(driverID));
+        if (others != null) {
+            for (String other : others) {
+                DriverID otherID = DriverID.fromString(other);
+                if (otherID.equals(driverID)) continue;
+                withdrawn.add(otherID);
+                keys.add(inboxKey(otherID));
+                keys.add(deadlinesKey(otherID));
+            }
+        }
+
+        RideRequest claimed = redisTemplate.execute(
+                CLAIM,
+                RedisSerializer.byteArray(),
+                codec(),
+                keys,
+                bytes(rideRequestID.value().toString()),
+                bytes(Long.toString(System.currentTimeMillis())),
+                bytes(driverID.value().toString())
+        );
+        if (claimed == null) return Optional.empty();
+
+        stringRedisTemplate.delete(watchKey(rideRequestID, claimed.ownerID()));
+
+        for (DriverID otherID : withdrawn)
+            stringRedisTemplate.convertAndSend(EVENTS_CHANNEL, event(WITHDRAWN, otherID, rideRequestID));
+        return Optional.of(claimed);
     }
 
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
     public List<RideRequest> pageOf(DriverID driverID) {
         if (!isEnabled()) return List.of();
 
-        return stringRedisTemplate
-                .keys(driverRequestsKey(driverID))
-                .stream()
-                .map(redisTemplate.opsForValue()::get)
+        List<RideRequest> live = redisTemplate.execute(
+                SWEEP_AND_LIST,
+                RedisSerializer.byteArray(),
+                (RedisSerializer<List>) (RedisSerializer<?>) codec(),
+                keys(driverID),
+                bytes(Long.toString(System.currentTimeMillis()))
+        );
+        if (live == null) return List.of();
+
+        return live.stream()
                 .filter(Objects::nonNull)
                 .toList();
     }
 
+    /* ================= INTERNALS ================= */
+
+    @SuppressWarnings("unchecked")
+    private RedisSerializer<RideRequest> codec() {
+        return (RedisSerializer<RideRequest>) redisTemplate.getHashValueSerializer();
+    }
+
+    private static String event(String type, DriverID driverID, RideRequestID rideRequestID) {
+        return type + ":" + driverID.value() + ":" + rideRequestID.value();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
     /* ================= KEYS ================= */
 
-    private static String driverRequestsKey(DriverID driverID) {
-        return "ride_request:{" + driverID.value() + "}:*";
+    private static List<String> keys(DriverID driverID) {
+        return List.of(inboxKey(driverID), deadlinesKey(driverID));
+    }
+
+    private static String inboxKey(DriverID driverID) {
+        return "ride_requests:{" + driverID.value() + "}";
+    }
+
+    private static String deadlinesKey(DriverID driverID) {
+        return "ride_requests:{" + driverID.value() + "}:deadlines";
+    }
+
+    private static String recipientsKey(RideRequestID rideRequestID) {
+        return "ride_request_recipients:{" + rideRequestID.value() + "}";
     }
 
-    private static String key(DriverID driverID, RideRequestID rideRequestID) {
-        return "ride_request:{" + driverID.value() + "}:" + rideRequestID.value();
+    /**
+     * Lives exactly as long as an unclaimed request and is deleted on claim, so its expiry event
+     * means the request expired. The owner is part of the name because expiry events carry no value.
+     */
+    public static String watchKey(RideRequestID rideRequestID, OwnerID ownerID) {
+        return WATCH_PREFIX + rideRequestID.value() + "}:" + ownerID.value();
+    }
+
+    public record Watch(String rideRequestID, String ownerID) {
+    }
+
+    public static @Nullable Watch watchOf(String key) {
+        if (!key.startsWith(WATCH_PREFIX)) return null;
+
+        int end = key.indexOf("}:", WATCH_PREFIX.length());
+        if (end < 0) return null;
+        return new Watch(key.substring(WATCH_PREFIX.length(), end), key.substring(end + 2));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,333 @@
+package org.project.infrastructure.cache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.project.domain.ride.entities.Ride;
+import org.project.domain.ride.enumerations.RideStatus;
+import org.project.domain.ride.enumerations.SeatStatus;
+import org.project.domain.ride.repositories.RideRepository;
+import org.project.domain.ride.value_object.BookedSeats;
+import org.project.domain.ride.value_object.PassengerSeat;
+import org.project.domain.ride.value_object.RideID;
+import org.project.domain.ride.value_object.SeatMap;
+import org.project.domain.shared.exceptions.IllegalDomainArgumentException;
+import org.project.domain.shared.value_objects.UserID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived seat holds kept in Redis. Every ride has a bitmap of seats that cannot be held
+ * (booked, the driver seat and indexes past the seat map) and one key per held seat, holding
+ * {@code user:hold}, that expires on its own. Holding, extending and releasing are single Lua
+ * scripts, so two holds never get the same seat, and a direct booking claims its seats through
+ * the same bitmap and keys, so it cannot take a seat someone else holds. MySQL is only read to
+ * warm a ride bitmap that Redis does not have yet.
+ */
+@Component
+public class SeatHolds {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatHolds.class);
+
+    public static final Duration HOLD_TTL = Duration.ofMinutes(5);
+
+    static final Duration CONFIRM_WINDOW = Duration.ofSeconds(30);
+
+    static final Duration BITMAP_TTL = Duration.ofHours(6);
+
+    /** KEYS: bitmap, seat keys. ARGV: holder, ttl ms, seat indexes. -1 cold bitmap, 0 taken, 1 held. */
+    private static final RedisScript<Long> HOLD = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end
+            for i = 2, #KEYS do
+              if redis.call('GETBIT', KEYS[1], ARGV[i + 1]) == 1 then return 0 end
+              local holder = redis.call('GET', KEYS[i])
+              if holder and holder ~= ARGV[1] then return 0 end
+            end
+            for i = 2, #KEYS do
+              redis.call('SET', KEYS[i], ARGV[1], 'PX', ARGV[2])
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * KEYS: bitmap, seat keys. ARGV: claim, user prefix, ttl ms, seat indexes. Like {@link #HOLD},
+     * but seats the same user already holds count as free and keep their hold.
+     */
+    private static final RedisScript<Long> CLAIM = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end
+            for i = 2, #KEYS do
+              if redis.call('GETBIT', KEYS[1], ARGV[i + 2]) == 1 then return 0 end
+              local holder = redis.call('GET', KEYS[i])
+              if holder and string.sub(holder, 1, #ARGV[2]) ~= ARGV[2] then return 0 end
+            end
+            for i = 2, #KEYS do
+              redis.call('SET', KEYS[i], ARGV[1], 'PX', ARGV[3], 'NX')
+            end
+            return 1
+            """, Long.class);
+
+    /** KEYS: seat keys. ARGV: holder, ttl ms. 1 when every seat is still held by this hold. */
+    private static final RedisScript<Long> EXTEND = RedisScript.of("""
+            for i = 1, #KEYS do
+              if redis.call('GET', KEYS[i]) ~= ARGV[1] then return 0 end
+            end
+            for i = 1, #KEYS do
+              redis.call('PEXPIRE', KEYS[i], ARGV[2])
+            end
+            return 1
+            """, Long.class);
+
+    /** KEYS: seat keys. ARGV: holder. Deletes only the seats that still belong to the hold. */
+    private static final RedisScript<Long> RELEASE = RedisScript.of("""
+            local released = 0
+            for i = 1, #KEYS do
+              if redis.call('GET', KEYS[i]) == ARGV[1] then
+                redis.call('DEL', KEYS[i])
+                released = released + 1
+              end
+            end
+            return released
+            """, Long.class);
+
+    /** KEYS: bitmap. ARGV: ttl ms, seat indexes. Seeds the bitmap unless another caller already did. */
+    private static final RedisScript<Long> SEED = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end
+            for i = 2, #ARGV do
+              redis.call('SETBIT', KEYS[1], ARGV[i], 1)
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    /** KEYS: bitmap. ARGV: seat indexes. Marks seats booked when the bitmap is warm. */
+    private static final RedisScript<Long> MARK_BOOKED = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end
+            for i = 1, #ARGV do
+              redis.call('SETBIT', KEYS[1], ARGV[i], 1)
+            end
+            return 1
+            """, Long.class);
+
+    private final RideRepository rideRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public SeatHolds(RideRepository rideRepository, StringRedisTemplate stringRedisTemplate) {
+        this.rideRepository = rideRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    public record Hold(String id, RideID rideID, UserID userID, BookedSeats bookedSeats, Instant expiresAt) {
+    }
+
+    /* ================= HOLDS ================= */
+
+    /** Holds the seats for {@link #HOLD_TTL}, or returns empty when any of them is booked or held by someone else. */
+    public Optional<Hold> hold(RideID rideID, UserID userID, BookedSeats bookedSeats) {
+        List<PassengerSeat> seats = validated(bookedSeats);
+
+        String holdID = UUID.randomUUID().toString();
+        if (!take(HOLD, rideID, seats, holder(userID, holdID), Long.toString(HOLD_TTL.toMillis())))
+            return Optional.empty();
+
+        Hold hold = new Hold(holdID, rideID, userID, bookedSeats, Instant.now().plus(HOLD_TTL));
+        String holdKey = holdKey(rideID, holdID);
+        stringRedisTemplate.opsForHash().putAll(holdKey, Map.of(
+                "user", userID.value().toString(),
+                "seats", encode(seats)
+        ));
+        stringRedisTemplate.expire(holdKey, HOLD_TTL);
+        return Optional.of(hold);
+    }
+
+    /**
+     * Claims the seats of a direct booking for {@link #CONFIRM_WINDOW}, so it cannot take seats
+     * held by another user. Empty when any of them is booked or held by someone else; the claim
+     * is settled with {@link #confirmed} or {@link #release} like a hold.
+     */
+    public Optional<Hold> claimForBooking(RideID rideID, UserID userID, BookedSeats bookedSeats) {
+        List<PassengerSeat> seats = validated(bookedSeats);
+
+        String claimID = UUID.randomUUID().toString();
+        String userPrefix = userID.value() + ":";
+        if (!take(CLAIM, rideID, seats, userPrefix + claimID, userPrefix, Long.toString(CONFIRM_WINDOW.toMillis())))
+            return Optional.empty();
+
+        return Optional.of(new Hold(claimID, rideID, userID, bookedSeats, Instant.now().plus(CONFIRM_WINDOW)));
+    }
+
+    public Optional<Hold> find(RideID rideID, String holdID) {
+        String holdKey = holdKey(rideID, holdID);
+        Map<Object, Object> fields = stringRedisTemplate.opsForHash().entries(holdKey);
+        if (fields.isEmpty()) return Optional.empty();
+
+        Long ttl = stringRedisTemplate.getExpire(holdKey, TimeUnit.MILLISECONDS);
+        return Optional.of(new Hold(
+                holdID,
+                rideID,
+                new UserID(UUID.fromString((String) fields.get("user"))),
+                decode((String) fields.get("seats")),
+                Instant.now().plusMillis(ttl == null || ttl < 0 ? 0 : ttl)
+        ));
+    }
+
+    /**
+     * Keeps the seats of a hold for {@link #CONFIRM_WINDOW} so its booking can be written before
+     * they expire. Returns false when any of them was already let go.
+     */
+    public boolean claim(Hold hold) {
+        Long extended = stringRedisTemplate.execute(
+                EXTEND,
+                seatKeys(hold.rideID(), hold.bookedSeats()),
+                holder(hold.userID(), hold.id()),
+                Long.toString(CONFIRM_WINDOW.toMillis())
+        );
+        if (extended == null || extended == 0) return false;
+
+        stringRedisTemplate.expire(holdKey(hold.rideID(), hold.id()), CONFIRM_WINDOW);
+        return true;
+    }
+
+    /** Lets the seats of a hold go. Best effort, they expire on their own anyway. */
+    public void release(Hold hold) {
+        try {
+            stringRedisTemplate.execute(RELEASE, seatKeys(hold.rideID(), hold.bookedSeats()), holder(hold.userID(), hold.id()));
+            stringRedisTemplate.delete(holdKey(hold.rideID(), hold.id()));
+        } catch (RuntimeException e) {
+            log.warn("Unable to release hold {} of ride {}", hold.id(), hold.rideID().value(), e);
+        }
+    }
+
+    /** Turns a confirmed hold into booked bits. Best effort, the ride_seat rows are the source of truth. */
+    public void confirmed(Hold hold) {
+        booked(hold.rideID(), hold.bookedSeats());
+        release(hold);
+    }
+
+    /* ================= BITMAP ================= */
+
+    /** Seeds the bitmap of a ride from its current seat map; non-pending rides cannot be held at all. */
+    private void warm(Ride ride) {
+        List<String> args = new ArrayList<>(SeatMap.MAX_SEATS + 1);
+        args.add(Long.toString(BITMAP_TTL.toMillis()));
+
+        SeatMap seatMap = ride.seatMap();
+        boolean open = ride.status() == RideStatus.PENDING;
+        for (int index = 0; index < SeatMap.MAX_SEATS; index++) {
+            if (!open || index == 0 || index >= seatMap.size() || !seatMap.isAvailable(index))
+                args.add(Integer.toString(index));
+        }
+
+        stringRedisTemplate.execute(SEED, List.of(bitmapKey(ride.id())), args.toArray());
+    }
+
+    /** Marks seats booked. Best effort, a cold bitmap is warmed from MySQL later. */
+    public void booked(RideID rideID, BookedSeats bookedSeats) {
+        try {
+            Object[] indexes = bookedSeats.bookedSeats().stream()
+                    .map(seat -> Integer.toString(seat.index()))
+                    .toArray();
+            stringRedisTemplate.execute(MARK_BOOKED, List.of(bitmapKey(rideID)), indexes);
+        } catch (RuntimeException e) {
+            log.warn("Unable to mark booked seats of ride {}", rideID.value(), e);
+        }
+    }
+
+    /**
+     * Drops the bitmap so the next hold warms it again, e.g. after it turned out to be stale or
+     * the ride was started or cancelled, which leaves no seat to hold.
+     */
+    public void forget(RideID rideID) {
+        try {
+            stringRedisTemplate.delete(bitmapKey(rideID));
+        } catch (RuntimeException e) {
+            log.warn("Unable to drop seat bitmap of ride {}", rideID.value(), e);
+        }
+    }
+
+    /* ================= INTERNALS ================= */
+
+    private static List<PassengerSeat> validated(BookedSeats bookedSeats) {
+        List<PassengerSeat> seats = bookedSeats.bookedSeats();
+        if (seats.isEmpty())
+            throw new IllegalDomainArgumentException("At least one seat must be held");
+        for (PassengerSeat seat : seats)
+            if (seat.index() >= SeatMap.MAX_SEATS)
+                throw new IllegalDomainArgumentException("Invalid seat index: " + seat.index());
+        return seats;
+    }
+
+    /** Runs a taking script over the ride bitmap and seat keys, warming the bitmap once if it is cold. */
+    private boolean take(RedisScript<Long> script, RideID rideID, List<PassengerSeat> seats, String... leadingArgs) {
+        List<String> keys = new ArrayList<>(seats.size() + 1);
+        List<String> args = new ArrayList<>(seats.size() + leadingArgs.length);
+        keys.add(bitmapKey(rideID));
+        args.addAll(List.of(leadingArgs));
+        for (PassengerSeat seat : seats) {
+            keys.add(seatKey(rideID, seat.index()));
+            args.add(Integer.toString(seat.index()));
+        }
+
+        Long taken = stringRedisTemplate.execute(script, keys, args.toArray());
+        if (taken != null && taken < 0) {
+            warm(rideRepository.findBy(rideID).orElseThrow(() ->
+                    new IllegalDomainArgumentException("This ride does not exist.")));
+            taken = stringRedisTemplate.execute(script, keys, args.toArray());
+        }
+        return taken != null && taken > 0;
+    }
+
+    private static String holder(UserID userID, String holdID) {
+        return userID.value() + ":" + holdID;
+    }
+
+    private static String encode(List<PassengerSeat> seats) {
+        StringBuilder encoded = new StringBuilder();
+        for (PassengerSeat seat : seats) {
+            if (!encoded.isEmpty()) encoded.append(',');
+            encoded.append(seat.index()).append(':').append(seat.status().name());
+        }
+        return encoded.toString();
+    }
+
+    private static BookedSeats decode(String encoded) {
+        List<PassengerSeat> seats = new ArrayList<>();
+        for (String seat : encoded.split(",")) {
+            int separator = seat.indexOf(':');
+            seats.add(new PassengerSeat(
+                    Integer.parseInt(seat.substring(0, separator)),
+                    SeatStatus.valueOf(seat.substring(separator + 1))
+            ));
+        }
+        return new BookedSeats(seats);
+    }
+
+    private static List<String> seatKeys(RideID rideID, BookedSeats bookedSeats) {
+        return bookedSeats.bookedSeats().stream()
+                .map(seat -> seatKey(rideID, seat.index()))
+                .toList();
+    }
+
+    /* ================= KEYS ================= */
+
+    private static String bitmapKey(RideID rideID) {
+        return "ride_seats:{" + rideID.value() + "}:unavailable";
+    }
+
+    private static String seatKey(RideID rideID, int index) {
+        return "ride_seats:{" + rideID.value() + "}:hold:" + index;
+    }
+
+    private static String holdKey(RideID rideID, String holdID) {
+        return "ride_seats:{" + rideID.value() + "}:holds:" + holdID;
+    }
+}
@@ -0,0 +1,151 @@
+package org.project.infrastructure.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.project.domain.fleet.repositories.CarRepository;
+import org.project.domain.fleet.repositories.DriverRepository;
+import org.project.domain.fleet.repositories.OwnerRepository;
+import org.project.domain.shared.annotations.Nullable;
+import org.project.domain.shared.containers.Result;
+import org.project.domain.user.repositories.UserRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bloom filters over the values that must be unique across accounts: emails, phones, driver
+ * licenses, VOENs and license plates. Each is seeded from MySQL in keyset pages when the node
+ * starts and gets every value saved afterwards, here and, through {@link #CHANNEL}, on the other
+ * nodes. A value the filter has never seen is certainly free, so registration skips the existence
+ * query for it; a possible hit still asks MySQL. Until a filter is seeded, or if seeding failed,
+ * every value is a possible hit. The unique indexes stay the final word for a save that races
+ * with one on another node.
+ */
+@Component
+public class UniqueKeys implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(UniqueKeys.class);
+
+    public static final String CHANNEL = "unique_keys:additions";
+
+    static final long EXPECTED_KEYS = 1_000_000;
+
+    static final double FALSE_POSITIVE_RATE = 0.01;
+
+    static final int SEED_PAGE = 5_000;
+
+    public enum Kind {
+        EMAIL, PHONE, DRIVER_LICENSE, VOEN, LICENSE_PLATE
+    }
+
+    private final Map<Kind, BloomFilter> filters = new EnumMap<>(Kind.class);
+    private final Map<Kind, KeyPages> sources = new EnumMap<>(Kind.class);
+    private final Set<Kind> seeded = ConcurrentHashMap.newKeySet();
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public UniqueKeys(UserRepository userRepository,
+                      DriverRepository driverRepository,
+                      OwnerRepository ownerRepository,
+                      CarRepository carRepository,
+                      StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+
+        sources.put(Kind.EMAIL, userRepository::emailsAfter);
+        sources.put(Kind.PHONE, userRepository::phonesAfter);
+        sources.put(Kind.DRIVER_LICENSE, driverRepository::licensesAfter);
+        sources.put(Kind.VOEN, ownerRepository::voensAfter);
+        sources.put(Kind.LICENSE_PLATE, carRepository::licensePlatesAfter);
+        for (Kind kind : Kind.values()) filters.put(kind, new BloomFilter(EXPECTED_KEYS, FALSE_POSITIVE_RATE));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread.startVirtualThread(() -> {
+            for (Kind kind : Kind.values()) seed(kind);
+        });
+    }
+
+    /* ================= LOOKUPS ================= */
+
+    /** False only when the value is certainly not taken; true means ask MySQL. */
+    public boolean mightExist(Kind kind, String value) {
+        return !seeded.contains(kind) || filters.get(kind).mightContain(normalize(value));
+    }
+
+    /** Records a saved value on this node and on every other one. */
+    public void add(Kind kind, String value) {
+        String key = normalize(value);
+        filters.get(kind).add(key);
+
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, kind.name() + ":" + key);
+        } catch (RuntimeException e) {
+            log.warn("Unable to publish new {} to other nodes, their unique indexes will reject a duplicate", kind, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, @Nullable byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 2);
+        if (parts.length != 2) return;
+
+        try {
+            filters.get(Kind.valueOf(parts[0])).add(parts[1]);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring unique key of unknown kind {}", parts[0]);
+        }
+    }
+
+    /* ================= SEEDING ================= */
+
+    private void seed(Kind kind) {
+        BloomFilter filter = filters.get(kind);
+        KeyPages source = sources.get(kind);
+
+        long count = 0;
+        String after = "";
+        while (true) {
+            Result<List<String>, Throwable> page = source.after(after, SEED_PAGE);
+            if (!page.success()) {
+                log.warn("Unable to seed {} filter, uniqueness of {} is checked in MySQL", kind, kind, page.throwable());
+                return;
+            }
+
+            List<String> keys = page.value();
+            for (String key : keys) filter.add(normalize(key));
+            count += keys.size();
+            if (keys.size() < SEED_PAGE) break;
+
+            after = keys.get(keys.size() - 1);
+        }
+
+        seeded.add(kind);
+        if (count > EXPECTED_KEYS)
+            log.warn("{} filter holds {} keys, more than the {} it is sized for", kind, count, EXPECTED_KEYS);
+        log.info("{} filter is seeded with {} keys", kind, count);
+    }
+
+    /* ================= INTERNALS ================= */
+
+    /** The columns compare case-insensitively and ignore trailing spaces, so the filters do too. */
+    private static String normalize(String value) {
+        return value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    @FunctionalInterface
+    private interface KeyPages {
+        Result<List<String>, Throwable> after(String after, int limit);
+    }
+}
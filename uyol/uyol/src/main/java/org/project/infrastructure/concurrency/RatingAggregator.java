@@ -0,0 +1,110 @@
+package org.project.infrastructure.concurrency;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.project.domain.fleet.entities.Driver;
+import org.project.domain.fleet.repositories.DriverRepository;
+import org.project.domain.fleet.value_objects.RatingDelta;
+import org.project.domain.shared.containers.Result;
+import org.project.domain.shared.value_objects.DriverID;
+import org.project.infrastructure.cache.DriverLeaderboard;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces driver ratings in memory and adds them to the driver rows in batches. Every rating
+ * of a driver since the last flush becomes one delta, and up to {@link #MAX_BATCH} deltas go out
+ * as one in-place increment, so a burst of ratings at the end of a ride touches each row once.
+ * A batch that fails is merged back and retried on the next flush.
+ */
+@Component
+public class RatingAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingAggregator.class);
+
+    static final long FLUSH_EVERY_MILLIS = 1_000;
+
+    static final int MAX_BATCH = 64;
+
+    private final DriverRepository driverRepository;
+    private final DriverLeaderboard driverLeaderboard;
+    private final Map<DriverID, RatingDelta> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    public RatingAggregator(DriverRepository driverRepository, DriverLeaderboard driverLeaderboard) {
+        this.driverRepository = driverRepository;
+        this.driverLeaderboard = driverLeaderboard;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rating-aggregator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flush, FLUSH_EVERY_MILLIS, FLUSH_EVERY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /** Queues one rating; it reaches the driver row within {@link #FLUSH_EVERY_MILLIS}. */
+    public void add(DriverID driverID, int score) {
+        pending.merge(driverID, RatingDelta.of(driverID, score, LocalDateTime.now()), RatingDelta::plus);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /* ================= FLUSH ================= */
+
+    private synchronized void flush() {
+        try {
+            while (!pending.isEmpty()) {
+                List<RatingDelta> batch = drain();
+                if (batch.isEmpty()) return;
+
+                Result<Integer, Throwable> written = driverRepository.addRatings(batch);
+                if (!written.success()) {
+                    log.warn("Unable to add {} driver ratings, retrying on the next flush", batch.size(), written.throwable());
+                    batch.forEach(delta -> pending.merge(delta.driverID(), delta, RatingDelta::plus));
+                    return;
+                }
+
+                rerank(batch);
+            }
+        } catch (RuntimeException e) {
+            log.error("Driver rating flush failed", e);
+        }
+    }
+
+    private List<RatingDelta> drain() {
+        List<RatingDelta> batch = new ArrayList<>(MAX_BATCH);
+        Iterator<DriverID> drivers = pending.keySet().iterator();
+        while (drivers.hasNext() && batch.size() < MAX_BATCH) {
+            RatingDelta delta = pending.remove(drivers.next());
+            if (delta != null) batch.add(delta);
+        }
+        return batch;
+    }
+
+    private void rerank(List<RatingDelta> batch) {
+        List<DriverID> driverIDs = batch.stream().map(RatingDelta::driverID).toList();
+        Result<List<Driver>, Throwable> drivers = driverRepository.findAllBy(driverIDs);
+        if (drivers.success()) drivers.value().forEach(driverLeaderboard::update);
+    }
+}
@@ -0,0 +1,267 @@
+package org.project.infrastructure.concurrency;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.project.domain.ride.entities.Ride;
+import org.project.domain.ride.entities.RideContract;
+import org.project.domain.ride.repositories.RideContractRepository;
+import org.project.domain.ride.repositories.RideRepository;
+import org.project.domain.ride.value_object.BookedSeats;
+import org.project.domain.ride.value_object.RideID;
+import org.project.domain.shared.containers.Result;
+import org.project.domain.shared.exceptions.DomainException;
+import org.project.domain.shared.exceptions.IllegalDomainArgumentException;
+import org.project.domain.shared.value_objects.UserID;
+import org.project.infrastructure.cache.PendingRides;
+
+import com.hadzhy.jetquerious.exceptions.NotFoundException;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Routes every booking of a ride through one single-writer lane (lanes are striped by ride id).
+ * A lane drains whatever has queued up, applies the burst to a warm {@link Ride} in memory and
+ * persists it with one batch of seat inserts and one of contract inserts in a single
+ * transaction. The warm copy may be up to {@link #WARM_FOR_NANOS} old and other nodes change
+ * rides without evicting it, so the transaction checks the ride is still pending under a shared
+ * row lock. When the batch is rejected it falls back to committing the bookings one by one, so
+ * each caller still gets its own outcome.
+ */
+@Component
+public class RideBookingSequencer {
+
+    private static final Logger log = LoggerFactory.getLogger(RideBookingSequencer.class);
+
+    static final int QUEUE_CAPACITY = 1024;
+
+    static final int MAX_BURST = 64;
+
+    static final long PICK_UP_TIMEOUT_SECONDS = 10;
+
+    static final long WARM_FOR_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final RideRepository rideRepository;
+    private final RideContractRepository rideContractRepository;
+    private final PendingRides pendingRides;
+    private final Lane[] lanes;
+
+    public RideBookingSequencer(
+            RideRepository rideRepository,
+            RideContractRepository rideContractRepository,
+            PendingRides pendingRides
+    ) {
+        this.rideRepository = rideRepository;
+        this.rideContractRepository = rideContractRepository;
+        this.pendingRides = pendingRides;
+
+        this.lanes = new Lane[Math.max(4, Runtime.getRuntime().availableProcessors())];
+        for (int i = 0; i < lanes.length; i++) lanes[i] = new Lane(i);
+    }
+
+    /**
+     * Books the seats and blocks until the lane has committed them. Domain failures are rethrown
+     * as they are; a full lane or a booking that was not picked up in time is rejected.
+     */
+    public RideContract book(RideID rideID, UserID userID, BookedSeats bookedSeats) {
+        Booking booking = new Booking(rideID, userID, bookedSeats);
+        if (!laneOf(rideID).queue.offer(booking))
+            throw new RejectedExecutionException("Booking queue of the ride is full");
+
+        return await(booking);
+    }
+
+    /** Drops the warm copy of a ride, e.g. after its status was changed elsewhere. */
+    public void evict(RideID rideID) {
+        laneOf(rideID).warm.remove(rideID);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Lane lane : lanes) lane.thread.interrupt();
+    }
+
+    /* ================= LANE ================= */
+
+    private final class Lane implements Runnable {
+
+        final BlockingQueue<Booking> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        final Map<RideID, WarmRide> warm = new ConcurrentHashMap<>();
+        final Thread thread;
+
+        Lane(int index) {
+            this.thread = new Thread(this, "ride-booking-" + index);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        @Override
+        public void run() {
+            List<Booking> burst = new ArrayList<>(MAX_BURST);
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    burst.add(queue.take());
+                } catch (InterruptedException e) {
+                    break;
+                }
+                queue.drainTo(burst, MAX_BURST - 1);
+
+                Map<RideID, List<Booking>> byRide = new LinkedHashMap<>();
+                for (Booking booking : burst) {
+                    if (booking.claimed.compareAndSet(false, true))
+                        byRide.computeIfAbsent(booking.rideID, id -> new ArrayList<>()).add(booking);
+                }
+
+                byRide.forEach((rideID, bookings) -> {
+                    try {
+                        commit(rideID, bookings);
+                    } catch (RuntimeException e) {
+                        log.error("Unable to commit bookings of ride {}", rideID, e);
+                        warm.remove(rideID);
+                        bookings.forEach(booking -> booking.result.completeExceptionally(e));
+                    }
+                });
+
+                burst.clear();
+                long now = System.nanoTime();
+                warm.values().removeIf(ride -> now - ride.loadedAt > WARM_FOR_NANOS);
+            }
+
+            for (Booking booking; (booking = queue.poll()) != null; )
+                booking.result.completeExceptionally(new RejectedExecutionException("Booking lane was stopped"));
+        }
+
+        private void commit(RideID rideID, List<Booking> bookings) {
+            Result<Ride, Throwable> loaded = warmRide(rideID);
+            if (!loaded.success()) {
+                RuntimeException failure = loaded.throwable() instanceof NotFoundException
+                        ? new IllegalDomainArgumentException("This ride does not exist.")
+                        : new IllegalStateException("Unable to read ride " + rideID.value(), loaded.throwable());
+                bookings.forEach(booking -> booking.result.completeExceptionally(failure));
+                return;
+            }
+
+            Ride ride = loaded.value();
+
+            List<Booking> accepted = new ArrayList<>(bookings.size());
+            List<RideContract> contracts = new ArrayList<>(bookings.size());
+            for (Booking booking : bookings) {
+                try {
+                    contracts.add(ride.book(booking.userID, booking.bookedSeats));
+                    accepted.add(booking);
+                } catch (DomainException e) {
+                    booking.result.completeExceptionally(e);
+                }
+            }
+            if (accepted.isEmpty()) return;
+
+            if (persistAll(contracts)) {
+                for (int i = 0; i < accepted.size(); i++) accepted.get(i).result.complete(contracts.get(i));
+                pendingRides.put(ride);
+                return;
+            }
+
+            // the warm ride now holds seats that were not stored, or it is not pending anymore;
+            // drop it and let the database decide one by one
+            warm.remove(rideID);
+            for (int i = 0; i < accepted.size(); i++) persistOne(accepted.get(i), contracts.get(i));
+            rideRepository.findBy(rideID).ifSuccess(pendingRides::put);
+        }
+
+        private Result<Ride, Throwable> warmRide(RideID rideID) {
+            WarmRide cached = warm.get(rideID);
+            if (cached != null && System.nanoTime() - cached.loadedAt <= WARM_FOR_NANOS) return Result.success(cached.ride);
+
+            Result<Ride, Throwable> loaded = rideRepository.findBy(rideID);
+            if (!loaded.success()) {
+                warm.remove(rideID);
+                return loaded;
+            }
+
+            warm.put(rideID, new WarmRide(loaded.value(), System.nanoTime()));
+            return loaded;
+        }
+    }
+
+    /* ================= PERSISTENCE ================= */
+
+    /** Seats and contracts of the whole burst land in one transaction, or none of them does. */
+    private boolean persistAll(List<RideContract> contracts) {
+        return rideContractRepository.book(contracts).success();
+    }
+
+    private void persistOne(Booking booking, RideContract contract) {
+        Result<Integer, Throwable> booked = rideContractRepository.book(List.of(contract));
+        if (!booked.success()) {
+            booking.result.completeExceptionally(booked.throwable());
+            return;
+        }
+
+        booking.result.complete(contract);
+    }
+
+    /* ================= INTERNALS ================= */
+
+    private Lane laneOf(RideID rideID) {
+        return lanes[Math.floorMod(rideID.hashCode(), lanes.length)];
+    }
+
+    private static RideContract await(Booking booking) {
+        try {
+            return booking.result.get(PICK_UP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            if (booking.claimed.compareAndSet(false, true))
+                throw new RejectedExecutionException("Booking was not picked up in time", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (booking.claimed.compareAndSet(false, true))
+                throw new RejectedExecutionException("Booking was interrupted", e);
+        } catch (ExecutionException e) {
+            throw rethrown(e.getCause());
+        }
+
+        // the lane already took this booking, so its outcome is about to be final
+        try {
+            return booking.result.join();
+        } catch (CompletionException e) {
+            throw rethrown(e.getCause());
+        }
+    }
+
+    private static RuntimeException rethrown(Throwable cause) {
+        return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+    }
+
+    private static final class Booking {
+        final RideID rideID;
+        final UserID userID;
+        final BookedSeats bookedSeats;
+        final AtomicBoolean claimed = new AtomicBoolean();
+        final CompletableFuture<RideContract> result = new CompletableFuture<>();
+
+        Booking(RideID rideID, UserID userID, BookedSeats bookedSeats) {
+            this.rideID = rideID;
+            this.userID = userID;
+            this.bookedSeats = bookedSeats;
+        }
+    }
+
+    private record WarmRide(Ride ride, long loadedAt) {
+    }
+}
@@ -0,0 +1,105 @@
+package org.project.infrastructure.config;
+
+import java.util.List;
+
+import org.project.domain.ride.entities.RideRequest;
+import org.project.infrastructure.cache.DriverLocations;
+import org.project.infrastructure.cache.FailoverRideRequestStore;
+import org.project.infrastructure.cache.InMemoryRideRequests;
+import org.project.infrastructure.cache.PendingRides;
+import org.project.infrastructure.cache.PrincipalContexts;
+import org.project.infrastructure.cache.RideRequestCodec;
+import org.project.infrastructure.cache.RideRequestStore;
+import org.project.infrastructure.cache.RideRequests;
+import org.project.infrastructure.cache.UniqueKeys;
+import org.project.infrastructure.push.OwnerRideRequestFeed;
+import org.project.infrastructure.push.RideLocationFeed;
+import org.project.infrastructure.push.RideRequestRelay;
+import org.project.infrastructure.push.RideSeatFeed;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+@Configuration
+public class RedisConfig {
+
+    @Bean
+    public RideRequestCodec rideRequestCodec(MeterRegistry meterRegistry) {
+        return new RideRequestCodec(meterRegistry);
+    }
+
+    @Bean
+    public RedisTemplate<String, RideRequest> rideRequestRedisTemplate(
+            RedisConnectionFactory connectionFactory,
+            RideRequestCodec rideRequestCodec
+    ) {
+        RedisTemplate<String, RideRequest> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(RedisSerializer.string());
+        template.setHashKeySerializer(RedisSerializer.string());
+        template.setValueSerializer(rideRequestCodec);
+        template.setHashValueSerializer(rideRequestCodec);
+        return template;
+    }
+
+    @Bean
+    public RideRequests rideRequests(
+            RedisTemplate<String, RideRequest> rideRequestRedisTemplate,
+            StringRedisTemplate stringRedisTemplate
+    ) {
+        return new RideRequests(rideRequestRedisTemplate, stringRedisTemplate);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public InMemoryRideRequests inMemoryRideRequests() {
+        return new InMemoryRideRequests(RideRequests.TTL);
+    }
+
+    @Bean
+    @Primary
+    public RideRequestStore rideRequestStore(
+            RideRequests rideRequests,
+            InMemoryRideRequests inMemoryRideRequests,
+            MeterRegistry meterRegistry
+    ) {
+        return new FailoverRideRequestStore(rideRequests, inMemoryRideRequests, meterRegistry);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            RideRequestRelay rideRequestRelay,
+            OwnerRideRequestFeed ownerRideRequestFeed,
+            RideLocationFeed rideLocationFeed,
+            RideSeatFeed rideSeatFeed,
+            PrincipalContexts principalContexts,
+            UniqueKeys uniqueKeys,
+            PendingRides pendingRides,
+            DriverLocations driverLocations
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(rideRequestRelay, new ChannelTopic(RideRequests.EVENTS_CHANNEL));
+        container.addMessageListener(ownerRideRequestFeed, List.of(
+                new ChannelTopic(OwnerRideRequestFeed.CHANNEL),
+                new PatternTopic(OwnerRideRequestFeed.EXPIRED_EVENTS)
+        ));
+        container.addMessageListener(rideLocationFeed, new ChannelTopic(RideLocationFeed.CHANNEL));
+        container.addMessageListener(rideSeatFeed, new ChannelTopic(RideSeatFeed.CHANNEL));
+        container.addMessageListener(principalContexts, new ChannelTopic(PrincipalContexts.CHANNEL));
+        container.addMessageListener(uniqueKeys, new ChannelTopic(UniqueKeys.CHANNEL));
+        container.addMessageListener(pendingRides, new ChannelTopic(PendingRides.CHANNEL));
+        container.addMessageListener(driverLocations, new ChannelTopic(DriverLocations.CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,115 @@
+package org.project.infrastructure.push;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import org.project.application.dto.ride.RideRequestOutcomeDTO;
+import org.project.domain.ride.entities.RideRequest;
+import org.project.domain.ride.value_object.RideID;
+import org.project.domain.shared.annotations.Nullable;
+import org.project.domain.shared.value_objects.OwnerID;
+import org.project.infrastructure.cache.RideRequests;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Tells owners what happened to the ride requests they sent. An accepted request is published
+ * on {@link #CHANNEL} by the accepting node; an expired one is noticed through the Redis expiry
+ * event of its watch key (see {@link RideRequests#watchKey}), which carries the owner in its name.
+ */
+@Component
+public class OwnerRideRequestFeed implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(OwnerRideRequestFeed.class);
+
+    public static final String CHANNEL = "ride_requests:outcomes";
+
+    public static final String EXPIRED_EVENTS = "__keyevent@*__:expired";
+
+    public static final String ACCEPTED_EVENT = "request-accepted";
+
+    public static final String EXPIRED_EVENT = "request-expired";
+
+    private final SseHub sseHub;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public OwnerRideRequestFeed(SseHub sseHub, StringRedisTemplate stringRedisTemplate) {
+        this.sseHub = sseHub;
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * Expiry events are off by default in Redis and are the operator's to turn on
+     * ({@code notify-keyspace-events Ex}); only warn when they are missing.
+     */
+    @PostConstruct
+    public void checkExpiryEvents() {
+        String flags;
+        try {
+            Properties config = stringRedisTemplate.execute((RedisCallback<Properties>) connection ->
+                    connection.serverCommands().getConfig("notify-keyspace-events"));
+            flags = config == null ? "" : config.getProperty("notify-keyspace-events", "");
+        } catch (RuntimeException e) {
+            log.info("Unable to read Redis notify-keyspace-events, expired ride requests are only reported if it includes Ex", e);
+            return;
+        }
+
+        if (!flags.contains("E") || !(flags.contains("x") || flags.contains("A")))
+            log.warn("Redis notify-keyspace-events is '{}', owners will not be told about expired ride requests until it includes Ex", flags);
+    }
+
+    public SseEmitter subscribe(OwnerID ownerID) {
+        return sseHub.subscribe(topic(ownerID.value().toString()));
+    }
+
+    public void accepted(RideRequest rideRequest, RideID rideID) {
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, String.join(":",
+                    rideRequest.ownerID().value().toString(),
+                    rideRequest.id().value().toString(),
+                    rideRequest.driverID().value().toString(),
+                    rideID.value().toString()
+            ));
+        } catch (RuntimeException e) {
+            log.warn("Unable to publish acceptance of ride request {}", rideRequest.id().value(), e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, @Nullable byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+
+        if (channel.equals(CHANNEL)) {
+            String[] accepted = body.split(":");
+            if (accepted.length != 4) return;
+
+            send(accepted[0], ACCEPTED_EVENT, new RideRequestOutcomeDTO(accepted[1], accepted[2], accepted[3]));
+            return;
+        }
+
+        RideRequests.Watch watch = RideRequests.watchOf(body);
+        if (watch != null)
+            send(watch.ownerID(), EXPIRED_EVENT, new RideRequestOutcomeDTO(watch.rideRequestID(), null, null));
+    }
+
+    /* ================= INTERNALS ================= */
+
+    private void send(String ownerID, String event, RideRequestOutcomeDTO outcome) {
+        String topic = topic(ownerID);
+        if (sseHub.hasSubscribers(topic)) sseHub.send(topic, null, event, outcome);
+    }
+
+    private static String topic(String ownerID) {
+        return "ride_request_outcomes:" + ownerID;
+    }
+}
@@ -0,0 +1,297 @@
+package org.project.infrastructure.push;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.project.application.dto.ride.RideLocationDTO;
+import org.project.domain.ride.value_object.RideID;
+import org.project.domain.shared.annotations.Nullable;
+import org.project.domain.shared.exceptions.IllegalDomainArgumentException;
+import org.project.domain.shared.value_objects.DriverID;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Positions of the cars of rides on the road, streamed to their passengers. Every ride the driver
+ * publishes to on this node has a track: the last {@link #TRAIL_SIZE} positions in a ring of
+ * primitive arrays, so a ride costs the same memory after one position or after a thousand.
+ * Publishing only writes the ring; every {@link #FLUSH_EVERY_MILLIS} the latest position of each
+ * moved ride is sent once to the passengers of this node and on {@link #CHANNEL} to the other
+ * nodes, however often the driver published in between. The latest position is also kept in
+ * Redis for passengers that subscribe on another node. Nothing reaches MySQL.
+ */
+@Component
+public class RideLocationFeed implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(RideLocationFeed.class);
+
+    public static final String CHANNEL = "ride_locations:updates";
+
+    public static final String LOCATION_EVENT = "ride-location";
+
+    public static final String TRAIL_EVENT = "ride-location-trail";
+
+    public static final String ENDED_EVENT = "ride-location-ended";
+
+    static final int TRAIL_SIZE = 32;
+
+    static final int MAX_RIDES = 20_000;
+
+    static final long FLUSH_EVERY_MILLIS = 1_000;
+
+    static final long IDLE_AFTER_MILLIS = 600_000;
+
+    private static final String LOCATION = "location";
+
+    private static final String ENDED = "ended";
+
+    private final String node = UUID.randomUUID().toString();
+    private final Map<RideID, Track> tracks = new ConcurrentHashMap<>();
+    private final SseHub sseHub;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ScheduledExecutorService flusher;
+
+    public RideLocationFeed(SseHub sseHub, StringRedisTemplate stringRedisTemplate) {
+        this.sseHub = sseHub;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ride-location-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flush, FLUSH_EVERY_MILLIS, FLUSH_EVERY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+    }
+
+    /* ================= DRIVERS ================= */
+
+    /** True when the driver already opened the ride's track on this node, so it needs no check. */
+    public boolean isPublisher(RideID rideID, DriverID driverID) {
+        Track track = tracks.get(rideID);
+        return track != null && track.driverID.equals(driverID);
+    }
+
+    /** Starts the track of a ride checked to be on the road with this driver. */
+    public void open(RideID rideID, DriverID driverID) {
+        if (tracks.size() >= MAX_RIDES && !tracks.containsKey(rideID)) {
+            evictIdle(System.currentTimeMillis());
+            if (tracks.size() >= MAX_RIDES)
+                throw new RejectedExecutionException("Too many rides share their location on this node");
+        }
+
+        tracks.compute(rideID, (id, track) ->
+                track != null && track.driverID.equals(driverID) ? track : new Track(driverID));
+    }
+
+    /** Records the car's position; false when the track was closed meanwhile. */
+    public boolean publish(RideID rideID, double latitude, double longitude) {
+        if (Double.isNaN(latitude) || latitude < -90.0 || latitude > 90.0)
+            throw new IllegalDomainArgumentException("Latitude must be between -90 and 90");
+        if (Double.isNaN(longitude) || longitude < -180.0 || longitude > 180.0)
+            throw new IllegalDomainArgumentException("Longitude must be between -180 and 180");
+
+        Track track = tracks.get(rideID);
+        if (track == null) return false;
+
+        track.add(latitude, longitude, System.currentTimeMillis());
+        return true;
+    }
+
+    /** Drops the track once the ride is over and tells every passenger, on every node. */
+    public void close(RideID rideID) {
+        tracks.remove(rideID);
+
+        String id = rideID.value().toString();
+        sseHub.send(topic(id), null, ENDED_EVENT, id);
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.keyCommands().del(bytes(lastKey(id)));
+                connection.publish(bytes(CHANNEL), bytes(String.join(":", ENDED, node, id)));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Unable to publish the end of location stream of ride {}", id, e);
+        }
+    }
+
+    /* ================= PASSENGERS ================= */
+
+    /** Subscribes a passenger and replays the trail kept here, or the latest position in Redis. */
+    public SseEmitter subscribe(RideID rideID) {
+        String id = rideID.value().toString();
+        SseEmitter emitter = sseHub.subscribe(topic(id));
+
+        Track track = tracks.get(rideID);
+        if (track != null) {
+            List<RideLocationDTO> trail = track.trail(id);
+            if (!trail.isEmpty()) sseHub.send(emitter, null, TRAIL_EVENT, trail);
+            return emitter;
+        }
+
+        try {
+            RideLocationDTO last = parse(id, stringRedisTemplate.opsForValue().get(lastKey(id)));
+            if (last != null) sseHub.send(emitter, null, LOCATION_EVENT, last);
+        } catch (RuntimeException e) {
+            log.warn("Unable to read last location of ride {}", id, e);
+        }
+        return emitter;
+    }
+
+    @Override
+    public void onMessage(Message message, @Nullable byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":", 4);
+        if (parts.length < 3 || parts[1].equals(node)) return;
+
+        String topic = topic(parts[2]);
+        if (!sseHub.hasSubscribers(topic)) return;
+
+        if (parts[0].equals(ENDED)) {
+            sseHub.send(topic, null, ENDED_EVENT, parts[2]);
+            return;
+        }
+
+        RideLocationDTO location = parts.length == 4 ? parse(parts[2], parts[3]) : null;
+        if (location != null) sseHub.send(topic, null, LOCATION_EVENT, location);
+    }
+
+    /* ================= FLUSH ================= */
+
+    private void flush() {
+        try {
+            long now = System.currentTimeMillis();
+            evictIdle(now);
+
+            List<RideLocationDTO> moved = new ArrayList<>();
+            tracks.forEach((rideID, track) -> {
+                RideLocationDTO latest = track.takeMoved(rideID.value().toString());
+                if (latest != null) moved.add(latest);
+            });
+            if (moved.isEmpty()) return;
+
+            for (RideLocationDTO location : moved) {
+                String topic = topic(location.rideID());
+                if (sseHub.hasSubscribers(topic)) sseHub.send(topic, null, LOCATION_EVENT, location);
+            }
+
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (RideLocationDTO location : moved) {
+                    String value = format(location);
+                    connection.stringCommands().pSetEx(bytes(lastKey(location.rideID())), IDLE_AFTER_MILLIS, bytes(value));
+                    connection.publish(bytes(CHANNEL), bytes(String.join(":", LOCATION, node, location.rideID(), value)));
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Ride location flush failed", e);
+        }
+    }
+
+    /** Tracks of rides whose driver stopped publishing, e.g. a ride finished on another node. */
+    private void evictIdle(long now) {
+        tracks.values().removeIf(track -> now - track.touchedAt > IDLE_AFTER_MILLIS);
+    }
+
+    /* ================= INTERNALS ================= */
+
+    private static String topic(String rideID) {
+        return "ride_location:" + rideID;
+    }
+
+    private static String lastKey(String rideID) {
+        return "ride_location:{" + rideID + "}:last";
+    }
+
+    private static String format(RideLocationDTO location) {
+        return location.latitude() + "|" + location.longitude() + "|" + location.at().toEpochMilli();
+    }
+
+    private static @Nullable RideLocationDTO parse(String rideID, @Nullable String value) {
+        if (value == null) return null;
+
+        String[] parts = value.split("\\|");
+        if (parts.length != 3) return null;
+
+        try {
+            return new RideLocationDTO(
+                    rideID,
+                    Double.parseDouble(parts[0]),
+                    Double.parseDouble(parts[1]),
+                    Instant.ofEpochMilli(Long.parseLong(parts[2]))
+            );
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class Track {
+
+        private final DriverID driverID;
+        private final double[] latitudes = new double[TRAIL_SIZE];
+        private final double[] longitudes = new double[TRAIL_SIZE];
+        private final long[] times = new long[TRAIL_SIZE];
+
+        private int next;
+        private int size;
+        private boolean moved;
+        private volatile long touchedAt = System.currentTimeMillis();
+
+        private Track(DriverID driverID) {
+            this.driverID = driverID;
+        }
+
+        private synchronized void add(double latitude, double longitude, long at) {
+            latitudes[next] = latitude;
+            longitudes[next] = longitude;
+            times[next] = at;
+            next = (next + 1) % TRAIL_SIZE;
+            if (size < TRAIL_SIZE) size++;
+            moved = true;
+            touchedAt = at;
+        }
+
+        /** The latest position if the car moved since the last call. */
+        private synchronized @Nullable RideLocationDTO takeMoved(String rideID) {
+            if (!moved) return null;
+
+            moved = false;
+            return at(rideID, (next - 1 + TRAIL_SIZE) % TRAIL_SIZE);
+        }
+
+        /** Positions kept, oldest first. */
+        private synchronized List<RideLocationDTO> trail(String rideID) {
+            List<RideLocationDTO> trail = new ArrayList<>(size);
+            for (int i = size; i > 0; i--) trail.add(at(rideID, (next - i + TRAIL_SIZE) % TRAIL_SIZE));
+            return trail;
+        }
+
+        private RideLocationDTO at(String rideID, int slot) {
+            return new RideLocationDTO(rideID, latitudes[slot], longitudes[slot], Instant.ofEpochMilli(times[slot]));
+        }
+    }
+}
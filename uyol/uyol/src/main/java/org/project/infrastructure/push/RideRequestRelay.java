@@ -0,0 +1,105 @@
+package org.project.infrastructure.push;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+
+import org.project.application.dto.ride.RideRequestToDriver;
+import org.project.domain.ride.entities.RideRequest;
+import org.project.domain.ride.value_object.RideRequestID;
+import org.project.domain.shared.annotations.Nullable;
+import org.project.domain.shared.value_objects.DriverID;
+import org.project.infrastructure.cache.RideRequestStore;
+import org.project.infrastructure.cache.RideRequests;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes ride requests to drivers connected to this node. {@link RideRequests} publishes every
+ * delivery and withdrawal on {@link RideRequests#EVENTS_CHANNEL}; this listener forwards the ones
+ * for locally connected drivers. Event ids are the request creation time, so a reconnecting
+ * driver gets every live request newer than its {@code Last-Event-ID} replayed from the inbox.
+ */
+@Component
+public class RideRequestRelay implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(RideRequestRelay.class);
+
+    public static final String RIDE_REQUEST_EVENT = "ride-request";
+
+    public static final String WITHDRAWN_EVENT = "ride-request-withdrawn";
+
+    private final SseHub sseHub;
+    private final RideRequestStore rideRequests;
+
+    public RideRequestRelay(SseHub sseHub, RideRequestStore rideRequests) {
+        this.sseHub = sseHub;
+        this.rideRequests = rideRequests;
+    }
+
+    public SseEmitter subscribe(DriverID driverID, @Nullable String lastEventId) {
+        SseEmitter emitter = sseHub.subscribe(topic(driverID));
+        long after = since(lastEventId);
+
+        rideRequests.pageOf(driverID).stream()
+                .filter(rideRequest -> eventTime(rideRequest) > after)
+                .sorted(Comparator.comparingLong(RideRequestRelay::eventTime))
+                .forEach(rideRequest -> sseHub.send(
+                        emitter,
+                        Long.toString(eventTime(rideRequest)),
+                        RIDE_REQUEST_EVENT,
+                        RideRequestToDriver.from(rideRequest)
+                ));
+        return emitter;
+    }
+
+    @Override
+    public void onMessage(Message message, @Nullable byte[] pattern) {
+        String[] event = new String(message.getBody(), StandardCharsets.UTF_8).split(":");
+        if (event.length != 3) {
+            log.warn("Ignoring malformed ride request event {}", String.join(":", event));
+            return;
+        }
+
+        DriverID driverID = DriverID.fromString(event[1]);
+        String topic = topic(driverID);
+        if (!sseHub.hasSubscribers(topic)) return;
+
+        RideRequestID rideRequestID = RideRequestID.fromString(event[2]);
+        switch (event[0]) {
+            case RideRequests.DELIVERED -> rideRequests.get(driverID, rideRequestID).ifPresent(rideRequest ->
+                    sseHub.send(
+                            topic,
+                            Long.toString(eventTime(rideRequest)),
+                            RIDE_REQUEST_EVENT,
+                            RideRequestToDriver.from(rideRequest)
+                    ));
+            case RideRequests.WITHDRAWN -> sseHub.send(topic, null, WITHDRAWN_EVENT, rideRequestID.value().toString());
+            default -> log.warn("Ignoring unknown ride request event {}", event[0]);
+        }
+    }
+
+    /* ================= INTERNALS ================= */
+
+    private static String topic(DriverID driverID) {
+        return "ride_requests:" + driverID.value();
+    }
+
+    private static long eventTime(RideRequest rideRequest) {
+        return rideRequest.createdAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static long since(@Nullable String lastEventId) {
+        if (lastEventId == null) return Long.MIN_VALUE;
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.project.infrastructure.push;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.project.application.dto.ride.SeatChangesDTO;
+import org.project.application.dto.ride.SeatMapDTO;
+import org.project.domain.ride.entities.Ride;
+import org.project.domain.ride.entities.RideContract;
+import org.project.domain.ride.enumerations.SeatStatus;
+import org.project.domain.ride.value_object.PassengerSeat;
+import org.project.domain.ride.value_object.RideID;
+import org.project.domain.shared.annotations.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Seat changes of rides, for clients keeping a seat map on screen. A subscriber gets the whole
+ * map once and then only the seats of every committed booking, as index and new status. The
+ * booking node publishes the change on {@link #CHANNEL} and every node, itself included, sends it
+ * to its own subscribers; if Redis fails the change still reaches the subscribers of this node.
+ */
+@Component
+public class RideSeatFeed implements MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(RideSeatFeed.class);
+
+    public static final String CHANNEL = "ride_seats:changes";
+
+    public static final String SEAT_MAP_EVENT = "seat-map";
+
+    public static final String SEATS_BOOKED_EVENT = "seats-booked";
+
+    private final SseHub sseHub;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public RideSeatFeed(SseHub sseHub, StringRedisTemplate stringRedisTemplate) {
+        this.sseHub = sseHub;
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /* ================= SUBSCRIBERS ================= */
+
+    /** Subscribes before the seat map is read, so no booking falls between the map and the stream. */
+    public SseEmitter subscribe(RideID rideID) {
+        return sseHub.subscribe(topic(rideID.value().toString()));
+    }
+
+    public void unsubscribe(RideID rideID, SseEmitter emitter) {
+        sseHub.unsubscribe(topic(rideID.value().toString()), emitter);
+    }
+
+    public void seatMap(SseEmitter emitter, Ride ride) {
+        sseHub.send(emitter, null, SEAT_MAP_EVENT, SeatMapDTO.from(ride));
+    }
+
+    /* ================= CHANGES ================= */
+
+    public void booked(RideContract rideContract) {
+        String rideID = rideContract.rideID().value().toString();
+        String contractID = rideContract.id().value().toString();
+        List<PassengerSeat> seats = rideContract.bookedSeats().bookedSeats();
+
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, String.join(":", rideID, contractID, format(seats)));
+        } catch (RuntimeException e) {
+            log.warn("Unable to publish seat changes of ride {}, only subscribers of this node see them", rideID, e);
+            send(rideID, contractID, seats);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, @Nullable byte[] pattern) {
+        String[] change = new String(message.getBody(), StandardCharsets.UTF_8).split(":");
+        if (change.length != 3) return;
+
+        List<PassengerSeat> seats = parse(change[2]);
+        if (seats != null) send(change[0], change[1], seats);
+    }
+
+    /* ================= INTERNALS ================= */
+
+    private void send(String rideID, String contractID, List<PassengerSeat> seats) {
+        String topic = topic(rideID);
+        if (sseHub.hasSubscribers(topic))
+            sseHub.send(topic, contractID, SEATS_BOOKED_EVENT, new SeatChangesDTO(rideID, seats));
+    }
+
+    private static String topic(String rideID) {
+        return "ride_seats:" + rideID;
+    }
+
+    private static String format(List<PassengerSeat> seats) {
+        StringBuilder encoded = new StringBuilder(seats.size() * 12);
+        for (PassengerSeat seat : seats) {
+            if (!encoded.isEmpty()) encoded.append(',');
+            encoded.append(seat.index()).append('=').append(seat.status().name());
+        }
+        return encoded.toString();
+    }
+
+    private static @Nullable List<PassengerSeat> parse(String encoded) {
+        String[] entries = encoded.split(",");
+        List<PassengerSeat> seats = new ArrayList<>(entries.length);
+        try {
+            for (String entry : entries) {
+                int separator = entry.indexOf('=');
+                seats.add(new PassengerSeat(
+                        Integer.parseInt(entry.substring(0, separator)),
+                        SeatStatus.valueOf(entry.substring(separator + 1))
+                ));
+            }
+            return seats;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.project.infrastructure.push;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.project.domain.shared.annotations.Nullable;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-sent event subscriptions of this node, grouped by topic (e.g. one topic per driver).
+ * Emitters that fail or time out are dropped; clients reconnect with {@code Last-Event-ID}.
+ */
+@Component
+public class SseHub {
+
+    static final long TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
+    private final Map<String, Set<SseEmitter>> topics = new ConcurrentHashMap<>();
+
+    public SseEmitter subscribe(String topic) {
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MILLIS);
+        topics.computeIfAbsent(topic, key -> ConcurrentHashMap.newKeySet()).add(emitter);
+
+        Runnable unsubscribe = () -> unsubscribe(topic, emitter);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        return emitter;
+    }
+
+    public boolean hasSubscribers(String topic) {
+        return topics.containsKey(topic);
+    }
+
+    /** Sends the event to every subscriber of the topic on this node. */
+    public void send(String topic, @Nullable String id, String name, Object data) {
+        Set<SseEmitter> emitters = topics.get(topic);
+        if (emitters == null) return;
+
+        for (SseEmitter emitter : emitters) {
+            if (!send(emitter, id, name, data)) unsubscribe(topic, emitter);
+        }
+    }
+
+    /** Sends the event to one subscriber, e.g. while replaying what it missed. */
+    public boolean send(SseEmitter emitter, @Nullable String id, String name, Object data) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name(name).data(data);
+        if (id != null) event.id(id);
+
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    /** Drops a subscriber, e.g. one that was never handed out because its request failed. */
+    public void unsubscribe(String topic, SseEmitter emitter) {
+        topics.computeIfPresent(topic, (key, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
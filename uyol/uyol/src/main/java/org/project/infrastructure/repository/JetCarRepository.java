@@ -74,15 +74,34 @@ public class JetCarRepository implements CarRepository {
             .sql();
 
     static final String PAGE_OF_CARS = select()
+            .column("id")
             .column("license_plate")
             .column("car_brand")
             .column("car_model")
             .column("car_color")
             .column("car_year")
             .column("seat_count")
+            .column("created_at")
             .from("car")
             .where("owner = ?")
-            .orderBy("created_at DESC")
+            .orderBy("created_at DESC, id DESC")
+            .limitAndOffset()
+            .sql();
+
+    static final String PAGE_OF_CARS_AFTER = select()
+            .column("id")
+            .column("license_plate")
+            .column("car_brand")
+            .column("car_model")
+            .column("car_color")
+            .column("car_year")
+            .column("seat_count")
+            .column("created_at")
+            .from("car")
+            .where("owner = ?")
+            .and("created_at <= ?")
+            .and("(created_at < ? OR id < ?)")
+            .orderBy("created_at DESC, id DESC")
             .limitAndOffset()
             .sql();
 
@@ -93,6 +112,14 @@ public class JetCarRepository implements CarRepository {
             .build()
             .sql();
 
+    static final String LICENSE_PLATES_AFTER = """
+            SELECT license_plate
+            FROM car
+            WHERE license_plate > ?
+            ORDER BY license_plate
+            LIMIT ?;
+            """;
+
     public JetCarRepository() {
         this.jet = JetQuerious.instance();
     }
@@ -141,13 +168,24 @@ public class JetCarRepository implements CarRepository {
 
     @Override
     public Result<List<CarDTO>, Throwable> pageOf(Pageable pageable, UserID userID) {
-        var listOf = jet.readListOf(
-                PAGE_OF_CARS,
-                this::carDTOMapper,
-                userID.value(),
-                pageable.limit(),
-                pageable.offset()
-        );
+        var listOf = pageable.cursor()
+                .map(after -> jet.readListOf(
+                        PAGE_OF_CARS_AFTER,
+                        this::carDTOMapper,
+                        userID.value(),
+                        after.keyAsDateTime(),
+                        after.keyAsDateTime(),
+                        after.id(),
+                        pageable.limit(),
+                        pageable.offset()
+                ))
+                .orElseGet(() -> jet.readListOf(
+                        PAGE_OF_CARS,
+                        this::carDTOMapper,
+                        userID.value(),
+                        pageable.limit(),
+                        pageable.offset()
+                ));
         return new Result<>(listOf.value(), listOf.throwable(), listOf.success());
     }
 
@@ -158,6 +196,12 @@ public class JetCarRepository implements CarRepository {
                 .orElse(false);
     }
 
+    @Override
+    public Result<List<String>, Throwable> licensePlatesAfter(String after, int limit) {
+        var result = jet.readListOf(LICENSE_PLATES_AFTER, rs -> rs.getString(1), after, limit);
+        return new Result<>(result.value(), result.throwable(), result.success());
+    }
+
     private Car carMapper(ResultSet rs) throws SQLException {
         return Car.fromRepository(
                 new CarID(UUID.fromString(rs.getString("id"))),
@@ -175,12 +219,14 @@ public class JetCarRepository implements CarRepository {
 
     private CarDTO carDTOMapper(ResultSet rs) throws SQLException {
         return new CarDTO(
+                rs.getString("id"),
                 rs.getString("license_plate"),
                 rs.getString("car_brand"),
                 rs.getString("car_model"),
                 rs.getString("car_color"),
                 rs.getInt("car_year"),
-                rs.getInt("seat_count")
+                rs.getInt("seat_count"),
+                rs.getObject("created_at", Timestamp.class).toLocalDateTime()
         );
     }
 }
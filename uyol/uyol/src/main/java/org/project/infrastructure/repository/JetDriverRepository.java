@@ -3,15 +3,17 @@ package org.project.infrastructure.repository;
 import static com.hadzhy.jetquerious.sql.QueryForge.insert;
 import static com.hadzhy.jetquerious.sql.QueryForge.select;
 import static com.hadzhy.jetquerious.sql.QueryForge.update;
+import static org.project.infrastructure.repository.RepositoryResults.mapVersionedResult;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.function.IntFunction;
 import java.util.List;
 import java.util.UUID;
 
 import org.project.application.dto.fleet.DriverDTO;
-import org.project.application.pagination.PageRequest;
 import org.project.domain.fleet.entities.Driver;
 import org.project.domain.fleet.enumerations.DriverStatus;
 import org.project.domain.fleet.repositories.DriverRepository;
@@ -38,7 +40,8 @@ public class JetDriverRepository implements DriverRepository {
                     "total_reviews",
                     "sum_of_scores",
                     "created_at",
-                    "last_updated"
+                    "last_updated",
+                    "version"
             )
             .values()
             .build()
@@ -63,11 +66,36 @@ public class JetDriverRepository implements DriverRepository {
             .sql();
 
     static final String UPDATE_RATING = update("driver")
-            .set("total_reviews = ?, sum_of_scores = ?, last_updated = ?")
+            .set("total_reviews = ?, sum_of_scores = ?, last_updated = ?, version = version + 1")
+            .where("id = ? AND version = ?")
+            .build()
+            .sql();
+
+    static final String ADD_RATING = update("driver")
+            .set("total_reviews = total_reviews + ?, sum_of_scores = sum_of_scores + ?, last_updated = ?, version = version + 1")
             .where("id = ?")
             .build()
             .sql();
 
+    static final int MAX_BATCH = 64;
+
+    /** One statement per batch size: every driver of the batch gets its own delta added in place. */
+    static final String[] ADD_RATINGS = perBatchSize(drivers -> update("driver")
+            .set("total_reviews = total_reviews + " + byID(drivers)
+                    + ", sum_of_scores = sum_of_scores + " + byID(drivers)
+                    + ", last_updated = " + byID(drivers)
+                    + ", version = version + 1")
+            .where("id IN (" + placeholders(drivers) + ")")
+            .build()
+            .sql());
+
+    static final String[] FIND_ALL_BY_ID = perBatchSize(drivers -> select()
+            .all()
+            .from("driver")
+            .where("id IN (" + placeholders(drivers) + ")")
+            .build()
+            .sql());
+
     static final String FIND_BY_ID = select()
             .all()
             .from("driver")
@@ -90,21 +118,30 @@ public class JetDriverRepository implements DriverRepository {
             .sql();
 
     static final String PAGE = """
-            SELECT
-                d.id AS id,
-                d.rides AS rides,
-                d.total_reviews AS total_reviews,
-                d.sum_of_scores AS sum_of_scores,
-                CASE
-                    WHEN d.total_reviews > 0
-                    THEN d.sum_of_scores::decimal / d.total_reviews
-                    ELSE NULL
-                END AS average
-            FROM driver d
-            ORDER BY average DESC
+            SELECT id, rides, total_reviews, average_rating AS average
+            FROM driver
+            WHERE status = 'AVAILABLE'
+            ORDER BY average_rating DESC, id ASC
+            LIMIT ? OFFSET ?;
+            """;
+
+    static final String PAGE_AFTER = """
+            SELECT id, rides, total_reviews, average_rating AS average
+            FROM driver
+            WHERE status = 'AVAILABLE'
+              AND (average_rating < ? OR (average_rating = ? AND id > ?))
+            ORDER BY average_rating DESC, id ASC
             LIMIT ? OFFSET ?;
             """;
 
+    static final String LICENSES_AFTER = """
+            SELECT driver_license
+            FROM driver
+            WHERE driver_license > ?
+            ORDER BY driver_license
+            LIMIT ?;
+            """;
+
     static final String IS_DRIVER_EXISTS = select()
             .count("user_id")
             .from("driver")
@@ -142,7 +179,8 @@ public class JetDriverRepository implements DriverRepository {
                 totalReviews,
                 sumOfScores,
                 driver.dates().createdAt(),
-                driver.dates().lastUpdated()
+                driver.dates().lastUpdated(),
+                driver.version()
         ));
     }
 
@@ -186,12 +224,44 @@ public class JetDriverRepository implements DriverRepository {
             }
         }
 
-        return mapTransactionResult(
+        return mapVersionedResult(
                 jet.write(UPDATE_RATING, totalReviews, sumOfScores,
-                        driver.dates().lastUpdated(), driver.id())
+                        driver.dates().lastUpdated(), driver.id(), driver.version())
+        );
+    }
+
+    @Override
+    public Result<Integer, Throwable> addRating(RatingDelta ratingDelta) {
+        return mapTransactionResult(
+                jet.write(ADD_RATING, ratingDelta.reviews(), ratingDelta.sumOfScores(),
+                        ratingDelta.ratedAt(), ratingDelta.driverID())
         );
     }
 
+    @Override
+    public Result<Integer, Throwable> addRatings(List<RatingDelta> ratingDeltas) {
+        if (ratingDeltas.isEmpty() || ratingDeltas.size() > MAX_BATCH)
+            return Result.failure(new IllegalArgumentException("Invalid count of rating deltas: " + ratingDeltas.size()));
+
+        Object[] params = new Object[ratingDeltas.size() * 7];
+        int i = 0;
+        for (RatingDelta ratingDelta : ratingDeltas) {
+            params[i++] = ratingDelta.driverID();
+            params[i++] = ratingDelta.reviews();
+        }
+        for (RatingDelta ratingDelta : ratingDeltas) {
+            params[i++] = ratingDelta.driverID();
+            params[i++] = ratingDelta.sumOfScores();
+        }
+        for (RatingDelta ratingDelta : ratingDeltas) {
+            params[i++] = ratingDelta.driverID();
+            params[i++] = ratingDelta.ratedAt();
+        }
+        for (RatingDelta ratingDelta : ratingDeltas) params[i++] = ratingDelta.driverID();
+
+        return mapTransactionResult(jet.write(ADD_RATINGS[ratingDeltas.size()], params));
+    }
+
     @Override
     public Result<Driver, Throwable> findBy(DriverID driverID) {
         var result = jet.read(FIND_BY_ID, this::driverMapper, driverID);
@@ -205,8 +275,24 @@ public class JetDriverRepository implements DriverRepository {
     }
 
     @Override
-    public Result<List<DriverDTO>, Throwable> page(PageRequest page) {
-        var result = jet.readListOf(PAGE, this::driverDTOMapper, page.limit(), page.offset());
+    public Result<List<Driver>, Throwable> findAllBy(List<DriverID> driverIDs) {
+        if (driverIDs.isEmpty()) return Result.success(List.of());
+        if (driverIDs.size() > MAX_BATCH)
+            return Result.failure(new IllegalArgumentException("Invalid count of drivers: " + driverIDs.size()));
+
+        var result = jet.readListOf(FIND_ALL_BY_ID[driverIDs.size()], this::driverMapper, driverIDs.toArray());
+        return new Result<>(result.value(), result.throwable(), result.success());
+    }
+
+    @Override
+    public Result<List<DriverDTO>, Throwable> page(Pageable page) {
+        var result = page.cursor()
+                .map(after -> jet.readListOf(
+                        PAGE_AFTER, this::driverDTOMapper,
+                        after.keyAsDouble(), after.keyAsDouble(), after.id(),
+                        page.limit(), page.offset()
+                ))
+                .orElseGet(() -> jet.readListOf(PAGE, this::driverDTOMapper, page.limit(), page.offset()));
         return new Result<>(result.value(), result.throwable(), result.success());
     }
 
@@ -224,6 +310,12 @@ public class JetDriverRepository implements DriverRepository {
                 .orElse(false);
     }
 
+    @Override
+    public Result<List<String>, Throwable> licensesAfter(String after, int limit) {
+        var result = jet.readListOf(LICENSES_AFTER, rs -> rs.getString(1), after, limit);
+        return new Result<>(result.value(), result.throwable(), result.success());
+    }
+
     private DriverDTO driverDTOMapper(ResultSet rs) throws SQLException {
         return new DriverDTO(
                 rs.getString("id"),
@@ -244,7 +336,8 @@ public class JetDriverRepository implements DriverRepository {
                 ),
                 DriverStatus.valueOf(rs.getString("status")),
                 new TotalRides(rs.getInt("rides")),
-                extractDriverRating(rs)
+                extractDriverRating(rs),
+                rs.getLong("version")
         );
     }
 
@@ -262,4 +355,19 @@ public class JetDriverRepository implements DriverRepository {
             com.hadzhy.jetquerious.util.Result<Integer, Throwable> result) {
         return new Result<>(result.value(), result.throwable(), result.success());
     }
+
+    private static String[] perBatchSize(IntFunction<String> statement) {
+        String[] statements = new String[MAX_BATCH + 1];
+        for (int drivers = 1; drivers <= MAX_BATCH; drivers++) statements[drivers] = statement.apply(drivers);
+        return statements;
+    }
+
+    /** CASE id WHEN ? THEN ? ... END, bound as (driver id, value) pairs. */
+    private static String byID(int drivers) {
+        return "CASE id " + String.join(" ", Collections.nCopies(drivers, "WHEN ? THEN ?")) + " END";
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
 }
@@ -6,6 +6,7 @@ import static com.hadzhy.jetquerious.sql.QueryForge.select;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import com.hadzhy.jetquerious.jdbc.JetQuerious;
@@ -59,6 +60,14 @@ public class JetOwnerRepository implements OwnerRepository {
             .build()
             .sql();
 
+    static final String VOENS_AFTER = """
+            SELECT voen
+            FROM owner
+            WHERE voen > ?
+            ORDER BY voen
+            LIMIT ?;
+            """;
+
     public JetOwnerRepository() {
         this.jet = JetQuerious.instance();
     }
@@ -102,6 +111,12 @@ public class JetOwnerRepository implements OwnerRepository {
                 .orElse(false);
     }
 
+    @Override
+    public Result<List<String>, Throwable> voensAfter(String after, int limit) {
+        var result = jet.readListOf(VOENS_AFTER, rs -> rs.getString(1), after, limit);
+        return new Result<>(result.value(), result.throwable(), result.success());
+    }
+
     private Owner ownerMapper(ResultSet rs) throws SQLException {
         return Owner.fromRepository(
                 new OwnerID(UUID.fromString(rs.getString("id"))),
@@ -5,15 +5,27 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hadzhy.jetquerious.jdbc.JetQuerious;
 import org.project.domain.ride.entities.RideContract;
+import org.project.domain.ride.enumerations.RideStatus;
 import org.project.domain.ride.repositories.RideContractRepository;
 import org.project.domain.ride.value_object.*;
 import org.project.domain.shared.containers.Result;
+import org.project.domain.shared.exceptions.IllegalDomainArgumentException;
+import org.project.domain.shared.exceptions.IllegalDomainStateException;
 import org.project.domain.shared.value_objects.Pageable;
 import org.project.domain.shared.value_objects.UserID;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.sql.DataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Timestamp;
 import java.util.List;
 
 import static com.hadzhy.jetquerious.sql.QueryForge.insert;
@@ -34,10 +46,33 @@ public class JetRideContractRepository implements RideContractRepository {
             .column("ride_id")
             .column("price_per_seat")
             .column("booked_seats")
+            .column("created_at")
+            .values()
+            .build()
+            .sql();
+
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+
+    static final int MAX_BATCH = 64;
+
+    static final String RESERVE_SEAT = insert()
+            .into("ride_seat")
+            .column("ride_id")
+            .column("seat_index")
+            .column("contract_id")
+            .column("occupant")
             .values()
             .build()
             .sql();
 
+    /** Shares the ride row lock with other bookings but waits for a status change to commit. */
+    static final String RIDE_STATUS_FOR_SHARE = forShare(select()
+            .column("status")
+            .from("ride")
+            .where("id = ?")
+            .build()
+            .sql());
+
     static final String FIND_BY_ID = select()
             .all()
             .from("ride_contract")
@@ -49,6 +84,17 @@ public class JetRideContractRepository implements RideContractRepository {
             .all()
             .from("ride_contract")
             .where("ride_id = ?")
+            .orderBy("created_at DESC, id DESC")
+            .limitAndOffset()
+            .sql();
+
+    static final String FIND_BY_RIDE_ID_AFTER = select()
+            .all()
+            .from("ride_contract")
+            .where("ride_id = ?")
+            .and("created_at <= ?")
+            .and("(created_at < ? OR id < ?)")
+            .orderBy("created_at DESC, id DESC")
             .limitAndOffset()
             .sql();
 
@@ -56,6 +102,17 @@ public class JetRideContractRepository implements RideContractRepository {
             .all()
             .from("ride_contract")
             .where("user_id = ?")
+            .orderBy("created_at DESC, id DESC")
+            .limitAndOffset()
+            .sql();
+
+    static final String FIND_BY_USER_ID_AFTER = select()
+            .all()
+            .from("ride_contract")
+            .where("user_id = ?")
+            .and("created_at <= ?")
+            .and("(created_at < ? OR id < ?)")
+            .orderBy("created_at DESC, id DESC")
             .limitAndOffset()
             .sql();
 
@@ -67,8 +124,13 @@ public class JetRideContractRepository implements RideContractRepository {
             .build()
             .sql();
 
-    JetRideContractRepository() {
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+
+    JetRideContractRepository(DataSource dataSource, PlatformTransactionManager transactionManager) {
         this.jet = JetQuerious.instance();
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -85,10 +147,85 @@ public class JetRideContractRepository implements RideContractRepository {
                 rideContract.userID(),
                 rideContract.rideID(),
                 rideContract.pricePerSeat(),
-                bookedSeats
+                bookedSeats,
+                rideContract.createdAt()
         ));
     }
 
+    /**
+     * Runs in the caller's transaction, or in a new one. The ride row is read {@code FOR SHARE}
+     * first, so bookings never commit on a ride that was started or cancelled meanwhile, even when
+     * the caller validated them against an older copy. Seat rows go next, so a seat someone else
+     * took fails the booking before any contract is written; either way nothing of it is committed.
+     */
+    @Override
+    public Result<Integer, Throwable> book(List<RideContract> rideContracts) {
+        if (rideContracts.isEmpty() || rideContracts.size() > MAX_BATCH)
+            return Result.failure(new IllegalArgumentException("Invalid count of ride contracts: " + rideContracts.size()));
+
+        int seats = 0;
+        for (RideContract rideContract : rideContracts) seats += rideContract.bookedSeats().size();
+        if (seats == 0 || seats >= SeatMap.MAX_SEATS)
+            return Result.failure(new IllegalDomainArgumentException("Invalid count of booked seats"));
+
+        try {
+            return Result.success(transactionTemplate.execute(status -> {
+                Connection connection = DataSourceUtils.getConnection(dataSource);
+                try {
+                    return book(connection, rideContracts);
+                } catch (SQLException | JsonProcessingException e) {
+                    throw new BookingFailure(e);
+                } finally {
+                    DataSourceUtils.releaseConnection(connection, dataSource);
+                }
+            }));
+        } catch (BookingFailure e) {
+            if (isDuplicateKey(e.getCause()))
+                return Result.failure(new IllegalDomainStateException("Some of the selected seats are already taken."));
+            return Result.failure(e.getCause());
+        } catch (RuntimeException e) {
+            return Result.failure(e);
+        }
+    }
+
+    private int book(Connection connection, List<RideContract> rideContracts) throws SQLException, JsonProcessingException {
+        try (PreparedStatement ride = connection.prepareStatement(RIDE_STATUS_FOR_SHARE)) {
+            for (RideID rideID : rideContracts.stream().map(RideContract::rideID).distinct().toList()) {
+                ride.setString(1, rideID.value().toString());
+                try (ResultSet rs = ride.executeQuery()) {
+                    if (!rs.next() || !RideStatus.PENDING.name().equals(rs.getString("status")))
+                        throw new IllegalDomainStateException("This ride is not open for booking anymore.");
+                }
+            }
+        }
+
+        try (PreparedStatement reserve = connection.prepareStatement(RESERVE_SEAT);
+             PreparedStatement save = connection.prepareStatement(RIDE_CONTRACT)) {
+            for (RideContract rideContract : rideContracts) {
+                String id = rideContract.id().value().toString();
+                String rideID = rideContract.rideID().value().toString();
+                for (PassengerSeat passengerSeat : rideContract.bookedSeats().bookedSeats()) {
+                    reserve.setString(1, rideID);
+                    reserve.setInt(2, passengerSeat.index());
+                    reserve.setString(3, id);
+                    reserve.setString(4, passengerSeat.status().name());
+                    reserve.addBatch();
+                }
+
+                save.setString(1, id);
+                save.setString(2, rideContract.userID().value().toString());
+                save.setString(3, rideID);
+                save.setBigDecimal(4, rideContract.pricePerSeat().amount());
+                save.setString(5, objectMapper.writeValueAsString(rideContract.bookedSeats().bookedSeats()));
+                save.setTimestamp(6, Timestamp.valueOf(rideContract.createdAt()));
+                save.addBatch();
+            }
+
+            reserve.executeBatch();
+            return save.executeBatch().length;
+        }
+    }
+
     @Override
     public Result<RideContract, Throwable> findBy(RideContractID rideContractID) {
         return mapResult(jet.read(FIND_BY_ID, this::mapRideContract, rideContractID));
@@ -96,12 +233,16 @@ public class JetRideContractRepository implements RideContractRepository {
 
     @Override
     public Result<List<RideContract>, Throwable> findBy(RideID rideID, Pageable page) {
-        return mapPageResult(jet.readListOf(FIND_BY_RIDE_ID, this::mapRideContract, rideID, page.limit(), page.offset()));
+        return mapPageResult(page.cursor()
+                .map(after -> jet.readListOf(FIND_BY_RIDE_ID_AFTER, this::mapRideContract, rideID, after.keyAsDateTime(), after.keyAsDateTime(), after.id(), page.limit(), page.offset()))
+                .orElseGet(() -> jet.readListOf(FIND_BY_RIDE_ID, this::mapRideContract, rideID, page.limit(), page.offset())));
     }
 
     @Override
     public Result<List<RideContract>, Throwable> findBy(UserID userID, Pageable page) {
-        return mapPageResult(jet.readListOf(FIND_BY_USER_ID, this::mapRideContract, userID, page.limit(), page.offset()));
+        return mapPageResult(page.cursor()
+                .map(after -> jet.readListOf(FIND_BY_USER_ID_AFTER, this::mapRideContract, userID, after.keyAsDateTime(), after.keyAsDateTime(), after.id(), page.limit(), page.offset()))
+                .orElseGet(() -> jet.readListOf(FIND_BY_USER_ID, this::mapRideContract, userID, page.limit(), page.offset())));
     }
 
     @Override
@@ -123,13 +264,35 @@ public class JetRideContractRepository implements RideContractRepository {
                     UserID.fromString(rs.getString("user_id")),
                     RideID.fromString(rs.getString("ride_id")),
                     new Price(rs.getBigDecimal("price_per_seat")),
-                    new BookedSeats(bookedSeats)
+                    new BookedSeats(bookedSeats),
+                    rs.getObject("created_at", Timestamp.class).toLocalDateTime()
             );
         } catch (JsonProcessingException e) {
             throw new SQLException(e);
         }
     }
 
+    /** Carries a checked failure out of the transaction callback, which rolls the transaction back. */
+    private static final class BookingFailure extends RuntimeException {
+        BookingFailure(Exception cause) {
+            super(cause);
+        }
+    }
+
+    private static String forShare(String sql) {
+        String query = sql.strip();
+        if (query.endsWith(";")) query = query.substring(0, query.length() - 1);
+        return query + " FOR SHARE";
+    }
+
+    private static boolean isDuplicateKey(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof SQLIntegrityConstraintViolationException) return true;
+            if (t instanceof SQLException e && e.getErrorCode() == MYSQL_DUPLICATE_ENTRY) return true;
+        }
+        return false;
+    }
+
     private static Result<RideContract, Throwable> mapResult(com.hadzhy.jetquerious.util.Result<RideContract, Throwable> res) {
         return new Result<>(res.value(), res.throwable(), res.success());
     }
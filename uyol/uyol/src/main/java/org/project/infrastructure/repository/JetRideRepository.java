@@ -4,13 +4,11 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hadzhy.jetquerious.jdbc.JetQuerious;
-import com.hadzhy.jetquerious.sql.Order;
 
 import org.project.application.dto.ride.RideDTO;
 import org.project.domain.ride.entities.Ride;
 import org.project.domain.ride.enumerations.RideRule;
 import org.project.domain.ride.enumerations.RideStatus;
-import org.project.domain.ride.enumerations.SeatStatus;
 import org.project.domain.ride.repositories.RideRepository;
 import org.project.domain.ride.value_object.*;
 import org.project.domain.shared.containers.Result;
@@ -26,6 +24,7 @@ import java.util.Set;
 
 import static com.hadzhy.jetquerious.sql.QueryForge.*;
 import static org.project.infrastructure.repository.JetOTPRepository.mapTransactionResult;
+import static org.project.infrastructure.repository.RepositoryResults.mapVersionedResult;
 
 @Repository
 public class JetRideRepository implements RideRepository {
@@ -50,43 +49,57 @@ public class JetRideRepository implements RideRepository {
                     "start_time",
                     "end_time",
                     "price",
-                    "seats",
+                    "seat_rows",
+                    "seat_columns",
+                    "seats_occupied",
+                    "seats_kind_low",
+                    "seats_kind_high",
                     "status",
                     "description",
                     "rules",
                     "creation_date",
                     "last_updated",
                     "has_active_contract",
-                    "fee"
+                    "fee",
+                    "version"
             )
             .values()
             .build()
             .sql();
 
-    static final String UPDATE_BOOKING = update("ride")
-            .set("seats = ?, has_active_contract = ?, fee = ?, last_updated = ?")
-            .where("id = ?")
-            .build()
-            .sql();
-
     static final String UPDATE_STATUS = update("ride")
-            .set("status = ?, last_updated = ?")
-            .where("id = ?")
+            .set("status = ?, last_updated = ?, version = version + 1")
+            .where("id = ? AND version = ?")
             .build()
             .sql();
 
     static final String UPDATE_RULES = update("ride")
-            .set("rules = ?, last_updated = ?")
-            .where("id = ?")
+            .set("rules = ?, last_updated = ?, version = version + 1")
+            .where("id = ? AND version = ?")
             .build()
             .sql();
 
-    static final String FIND_BY_ID = select()
-            .all()
-            .from("ride")
-            .where("id = ?")
-            .build()
-            .sql();
+    static final String FIND_BY_ID = """
+            SELECT
+                r.*,
+                COALESCE(b.occupied, 0) AS booked_occupied,
+                COALESCE(b.kind_low, 0) AS booked_kind_low,
+                COALESCE(b.kind_high, 0) AS booked_kind_high
+            FROM ride r
+            LEFT JOIN (
+                SELECT
+                    ride_id,
+                    CAST(BIT_OR(1 << seat_index) AS SIGNED) AS occupied,
+                    CAST(BIT_OR(CASE WHEN occupant IN ('MALE_OCCUPIED', 'CHILD_OCCUPIED')
+                        THEN 1 << seat_index ELSE 0 END) AS SIGNED) AS kind_low,
+                    CAST(BIT_OR(CASE WHEN occupant IN ('FEMALE_OCCUPIED', 'CHILD_OCCUPIED')
+                        THEN 1 << seat_index ELSE 0 END) AS SIGNED) AS kind_high
+                FROM ride_seat
+                WHERE ride_id = ?
+                GROUP BY ride_id
+            ) b ON b.ride_id = r.id
+            WHERE r.id = ?;
+            """;
 
     static final String FIND_BY_USER_ID = select()
             .column("r.id").as("id")
@@ -105,7 +118,30 @@ public class JetRideRepository implements RideRepository {
             .from("ride r")
             .join("ride_contract rc", "r.id = rc.ride_id")
             .where("rc.user_id = ?")
-            .orderBy("r.start_time", Order.DESC)
+            .orderBy("r.start_time DESC, r.id DESC")
+            .limitAndOffset()
+            .sql();
+
+    static final String FIND_BY_USER_ID_AFTER = select()
+            .column("r.id").as("id")
+            .column("r.driver_id").as("driver_id")
+            .column("r.owner_id").as("owner_id")
+            .column("r.from_location_desc").as("from_location_desc")
+            .column("r.from_latitude").as("from_latitude")
+            .column("r.from_longitude").as("from_longitude")
+            .column("r.to_location_desc").as("to_location_desc")
+            .column("r.to_latitude").as("to_latitude")
+            .column("r.to_longitude").as("to_longitude")
+            .column("r.start_time").as("start_time")
+            .column("r.end_time").as("end_time")
+            .column("r.price").as("price")
+            .column("r.status").as("status")
+            .from("ride r")
+            .join("ride_contract rc", "r.id = rc.ride_id")
+            .where("rc.user_id = ?")
+            .and("r.start_time <= ?")
+            .and("(r.start_time < ? OR r.id < ?)")
+            .orderBy("r.start_time DESC, r.id DESC")
             .limitAndOffset()
             .sql();
 
@@ -125,6 +161,29 @@ public class JetRideRepository implements RideRepository {
             .column("status")
             .from("ride")
             .where("owner_id = ?")
+            .orderBy("start_time DESC, id DESC")
+            .limitAndOffset()
+            .sql();
+
+    static final String FIND_BY_OWNER_ID_AFTER = select()
+            .column("id")
+            .column("driver_id")
+            .column("owner_id")
+            .column("from_location_desc")
+            .column("from_latitude")
+            .column("from_longitude")
+            .column("to_location_desc")
+            .column("to_latitude")
+            .column("to_longitude")
+            .column("start_time")
+            .column("end_time")
+            .column("price")
+            .column("status")
+            .from("ride")
+            .where("owner_id = ?")
+            .and("start_time <= ?")
+            .and("(start_time < ? OR id < ?)")
+            .orderBy("start_time DESC, id DESC")
             .limitAndOffset()
             .sql();
 
@@ -144,6 +203,29 @@ public class JetRideRepository implements RideRepository {
             .column("status")
             .from("ride")
             .where("driver_id = ?")
+            .orderBy("start_time DESC, id DESC")
+            .limitAndOffset()
+            .sql();
+
+    static final String FIND_BY_DRIVER_ID_AFTER = select()
+            .column("id")
+            .column("driver_id")
+            .column("owner_id")
+            .column("from_location_desc")
+            .column("from_latitude")
+            .column("from_longitude")
+            .column("to_location_desc")
+            .column("to_latitude")
+            .column("to_longitude")
+            .column("start_time")
+            .column("end_time")
+            .column("price")
+            .column("status")
+            .from("ride")
+            .where("driver_id = ?")
+            .and("start_time <= ?")
+            .and("(start_time < ? OR id < ?)")
+            .orderBy("start_time DESC, id DESC")
             .limitAndOffset()
             .sql();
 
@@ -162,7 +244,32 @@ public class JetRideRepository implements RideRepository {
             .column("price")
             .column("status")
             .from("ride")
-            .where("CAST(start_time AS DATE) = CAST(? AS DATE)")
+            .where("start_time >= ?")
+            .and("start_time < ?")
+            .orderBy("start_time ASC, id ASC")
+            .limitAndOffset()
+            .sql();
+
+    static final String FIND_BY_DATE_AFTER = select()
+            .column("id")
+            .column("driver_id")
+            .column("owner_id")
+            .column("from_location_desc")
+            .column("from_latitude")
+            .column("from_longitude")
+            .column("to_location_desc")
+            .column("to_latitude")
+            .column("to_longitude")
+            .column("start_time")
+            .column("end_time")
+            .column("price")
+            .column("status")
+            .from("ride")
+            .where("start_time >= ?")
+            .and("start_time < ?")
+            .and("start_time >= ?")
+            .and("(start_time > ? OR id > ?)")
+            .orderBy("start_time ASC, id ASC")
             .limitAndOffset()
             .sql();
 
@@ -180,17 +287,63 @@ public class JetRideRepository implements RideRepository {
             .column("end_time")
             .column("price")
             .column("status")
-            .column("POWER(from_latitude - ?, 2) + POWER(from_longitude - ?, 2)").as("start_distance_sq")
-            .column("POWER(to_latitude - ?, 2) + POWER(to_longitude - ?, 2)").as("end_distance_sq")
             .from("ride")
             .where("start_time >= ?")
-            .and("POWER(from_latitude - ?, 2) + POWER(from_longitude - ?, 2) <= ?")
-            .and("POWER(to_latitude - ?, 2) + POWER(to_longitude - ?, 2) <= ?")
             .and("status = 'PENDING'")
-            .orderBy("start_time ASC")
+            .and("MBRContains(ST_GeomFromText(?, 4326, 'axis-order=long-lat'), from_point)")
+            .and("MBRContains(ST_GeomFromText(?, 4326, 'axis-order=long-lat'), to_point)")
+            .and("ST_Distance_Sphere(from_point, ST_SRID(POINT(?, ?), 4326)) <= ?")
+            .and("ST_Distance_Sphere(to_point, ST_SRID(POINT(?, ?), 4326)) <= ?")
+            .orderBy("start_time ASC, id ASC")
+            .limitAndOffset()
+            .sql();
+
+    static final String ACTUAL_FOR_AFTER = select()
+            .column("id")
+            .column("driver_id")
+            .column("owner_id")
+            .column("from_location_desc")
+            .column("from_latitude")
+            .column("from_longitude")
+            .column("to_location_desc")
+            .column("to_latitude")
+            .column("to_longitude")
+            .column("start_time")
+            .column("end_time")
+            .column("price")
+            .column("status")
+            .from("ride")
+            .where("start_time >= ?")
+            .and("status = 'PENDING'")
+            .and("(start_time > ? OR id > ?)")
+            .and("MBRContains(ST_GeomFromText(?, 4326, 'axis-order=long-lat'), from_point)")
+            .and("MBRContains(ST_GeomFromText(?, 4326, 'axis-order=long-lat'), to_point)")
+            .and("ST_Distance_Sphere(from_point, ST_SRID(POINT(?, ?), 4326)) <= ?")
+            .and("ST_Distance_Sphere(to_point, ST_SRID(POINT(?, ?), 4326)) <= ?")
+            .orderBy("start_time ASC, id ASC")
             .limitAndOffset()
             .sql();
 
+    static final String PENDING_FROM = select()
+            .column("id")
+            .column("driver_id")
+            .column("owner_id")
+            .column("from_location_desc")
+            .column("from_latitude")
+            .column("from_longitude")
+            .column("to_location_desc")
+            .column("to_latitude")
+            .column("to_longitude")
+            .column("start_time")
+            .column("end_time")
+            .column("price")
+            .column("status")
+            .from("ride")
+            .where("start_time >= ?")
+            .and("status = 'PENDING'")
+            .build()
+            .sql();
+
     public JetRideRepository() {
         this.jet = JetQuerious.instance();
     }
@@ -198,9 +351,9 @@ public class JetRideRepository implements RideRepository {
     @Override
     public Result<Integer, Throwable> save(Ride ride) {
         try {
-            String seats = objectMapper.writeValueAsString(ride.seatMap().seats());
             String rules = objectMapper.writeValueAsString(ride.rideRules());
 
+            SeatMap seatMap = ride.seatMap();
             Location from = ride.route().from();
             Location to = ride.route().to();
 
@@ -220,33 +373,19 @@ public class JetRideRepository implements RideRepository {
                             ride.rideTime().startOfTheTrip(),
                             ride.rideTime().endOfTheTrip(),
                             ride.price(),
-                            seats,
+                            seatMap.rowCount(),
+                            seatMap.columnCount(),
+                            seatMap.occupiedBits(),
+                            seatMap.kindLowBits(),
+                            seatMap.kindHighBits(),
                             ride.status(),
                             ride.rideDesc(),
                             rules,
                             ride.dates().createdAt(),
                             ride.dates().lastUpdated(),
                             ride.hasActiveContract(),
-                            ride.fee()
-                    )
-            );
-        } catch (JsonProcessingException e) {
-            return Result.failure(e);
-        }
-    }
-
-    @Override
-    public Result<Integer, Throwable> updateSeats(Ride ride) {
-        try {
-            String seats = objectMapper.writeValueAsString(ride.seatMap().seats());
-            return mapTransactionResult(
-                    jet.write(
-                            UPDATE_BOOKING,
-                            seats,
-                            ride.hasActiveContract(),
                             ride.fee(),
-                            ride.dates().lastUpdated(),
-                            ride.id()
+                            ride.version()
                     )
             );
         } catch (JsonProcessingException e) {
@@ -256,12 +395,13 @@ public class JetRideRepository implements RideRepository {
 
     @Override
     public Result<Integer, Throwable> updateStatus(Ride ride) {
-        return mapTransactionResult(
+        return mapVersionedResult(
                 jet.write(
                         UPDATE_STATUS,
                         ride.status(),
                         ride.dates().lastUpdated(),
-                        ride.id()
+                        ride.id(),
+                        ride.version()
                 )
         );
     }
@@ -270,12 +410,13 @@ public class JetRideRepository implements RideRepository {
     public Result<Integer, Throwable> updateRules(Ride ride) {
         try {
             String rules = objectMapper.writeValueAsString(ride.rideRules());
-            return mapTransactionResult(
+            return mapVersionedResult(
                     jet.write(
                             UPDATE_RULES,
                             rules,
                             ride.dates().lastUpdated(),
-                            ride.id()
+                            ride.id(),
+                            ride.version()
                     )
             );
         } catch (JsonProcessingException e) {
@@ -285,34 +426,65 @@ public class JetRideRepository implements RideRepository {
 
     @Override
     public Result<Ride, Throwable> findBy(RideID rideID) {
-        return mapRideResult(jet.read(FIND_BY_ID, this::mapRide, rideID));
+        return mapRideResult(jet.read(FIND_BY_ID, this::mapRide, rideID, rideID));
     }
 
     @Override
     public Result<List<RideDTO>, Throwable> pageOf(UserID userID, Pageable page) {
-        return mapPageRideResult(
-                jet.readListOf(FIND_BY_USER_ID, this::mapRideDTO, userID, page.limit(), page.offset())
+        return mapPageRideResult(page.cursor()
+                .map(after -> jet.readListOf(
+                        FIND_BY_USER_ID_AFTER, this::mapRideDTO, userID,
+                        after.keyAsDateTime(), after.keyAsDateTime(), after.id(),
+                        page.limit(), page.offset()
+                ))
+                .orElseGet(() -> jet.readListOf(
+                        FIND_BY_USER_ID, this::mapRideDTO, userID, page.limit(), page.offset()
+                ))
         );
     }
 
     @Override
     public Result<List<RideDTO>, Throwable> pageOf(OwnerID ownerID, Pageable page) {
-        return mapPageRideResult(
-                jet.readListOf(FIND_BY_OWNER_ID, this::mapRideDTO, ownerID, page.limit(), page.offset())
+        return mapPageRideResult(page.cursor()
+                .map(after -> jet.readListOf(
+                        FIND_BY_OWNER_ID_AFTER, this::mapRideDTO, ownerID,
+                        after.keyAsDateTime(), after.keyAsDateTime(), after.id(),
+                        page.limit(), page.offset()
+                ))
+                .orElseGet(() -> jet.readListOf(
+                        FIND_BY_OWNER_ID, this::mapRideDTO, ownerID, page.limit(), page.offset()
+                ))
         );
     }
 
     @Override
     public Result<List<RideDTO>, Throwable> pageOf(DriverID driverID, Pageable page) {
-        return mapPageRideResult(
-                jet.readListOf(FIND_BY_DRIVER_ID, this::mapRideDTO, driverID, page.limit(), page.offset())
+        return mapPageRideResult(page.cursor()
+                .map(after -> jet.readListOf(
+                        FIND_BY_DRIVER_ID_AFTER, this::mapRideDTO, driverID,
+                        after.keyAsDateTime(), after.keyAsDateTime(), after.id(),
+                        page.limit(), page.offset()
+                ))
+                .orElseGet(() -> jet.readListOf(
+                        FIND_BY_DRIVER_ID, this::mapRideDTO, driverID, page.limit(), page.offset()
+                ))
         );
     }
 
     @Override
     public Result<List<RideDTO>, Throwable> pageOf(LocalDate localDate, Pageable page) {
-        return mapPageRideResult(
-                jet.readListOf(FIND_BY_DATE, this::mapRideDTO, localDate, page.limit(), page.offset())
+        return mapPageRideResult(page.cursor()
+                .map(after -> jet.readListOf(
+                        FIND_BY_DATE_AFTER, this::mapRideDTO,
+                        localDate.atStartOfDay(), localDate.plusDays(1).atStartOfDay(),
+                        after.keyAsDateTime(), after.keyAsDateTime(), after.id(),
+                        page.limit(), page.offset()
+                ))
+                .orElseGet(() -> jet.readListOf(
+                        FIND_BY_DATE, this::mapRideDTO,
+                        localDate.atStartOfDay(), localDate.plusDays(1).atStartOfDay(),
+                        page.limit(), page.offset()
+                ))
         );
     }
 
@@ -320,38 +492,70 @@ public class JetRideRepository implements RideRepository {
     public Result<List<RideDTO>, Throwable> actualFor(
             Location startPoint,
             Location destination,
+            SearchRadius radius,
             LocalDate date,
             Pageable page
     ) {
-        double startLat = startPoint.latitude();
-        double startLon = startPoint.longitude();
-        double endLat = destination.latitude();
-        double endLon = destination.longitude();
+        String startBox = boundingBox(startPoint, radius);
+        String destinationBox = boundingBox(destination, radius);
 
-        return mapPageRideResult(
-                jet.readListOf(
+        return mapPageRideResult(page.cursor()
+                .map(after -> jet.readListOf(
+                        ACTUAL_FOR_AFTER,
+                        this::mapRideDTO,
+                        after.keyAsDateTime(),
+                        after.keyAsDateTime(),
+                        after.id(),
+                        startBox,
+                        destinationBox,
+                        startPoint.longitude(),
+                        startPoint.latitude(),
+                        radius.metres(),
+                        destination.longitude(),
+                        destination.latitude(),
+                        radius.metres(),
+                        page.limit(),
+                        page.offset()
+                ))
+                .orElseGet(() -> jet.readListOf(
                         ACTUAL_FOR,
                         this::mapRideDTO,
-                        startLat,
-                        startLon,
-                        endLat,
-                        endLon,
-                        date,
-                        startLat,
-                        startLon,
-                        25,
-                        endLat,
-                        endLon,
-                        25,
+                        date.atStartOfDay(),
+                        startBox,
+                        destinationBox,
+                        startPoint.longitude(),
+                        startPoint.latitude(),
+                        radius.metres(),
+                        destination.longitude(),
+                        destination.latitude(),
+                        radius.metres(),
                         page.limit(),
                         page.offset()
-                )
+                ))
         );
     }
 
+    @Override
+    public Result<List<RideDTO>, Throwable> pendingFrom(LocalDate date) {
+        return mapPageRideResult(
+                jet.readListOf(PENDING_FROM, this::mapRideDTO, date.atStartOfDay())
+        );
+    }
+
+    /** A box around the circle; one crossing the ±180 meridian spans every longitude instead. */
+    private static String boundingBox(Location center, SearchRadius radius) {
+        double minLat = Math.max(-90.0, center.latitude() - radius.latitudeDelta());
+        double maxLat = Math.min(90.0, center.latitude() + radius.latitudeDelta());
+        List<SearchRadius.LongitudeRange> ranges = radius.longitudeRanges(center.latitude(), center.longitude());
+        double minLon = ranges.size() == 1 ? ranges.getFirst().min() : -180.0;
+        double maxLon = ranges.size() == 1 ? ranges.getFirst().max() : 180.0;
+
+        return "POLYGON((%1$s %3$s, %2$s %3$s, %2$s %4$s, %1$s %4$s, %1$s %3$s))"
+                .formatted(minLon, maxLon, minLat, maxLat);
+    }
+
     private Ride mapRide(ResultSet rs) throws SQLException {
         try {
-            SeatStatus[][] seats = objectMapper.readValue(rs.getString("seats"), SeatStatus[][].class);
             Set<RideRule> rules = objectMapper.readValue(rs.getString("rules"), new TypeReference<>() {});
 
             RideOwner owner = new RideOwner(
@@ -374,6 +578,16 @@ public class JetRideRepository implements RideRepository {
                     rs.getTimestamp("last_updated").toLocalDateTime()
             );
 
+            // a seat with a ride_seat row takes its occupant from there; the ride bits only cover seats taken at creation
+            long booked = rs.getLong("booked_occupied");
+            SeatMap seatMap = SeatMap.fromBits(
+                    rs.getInt("seat_rows"),
+                    rs.getInt("seat_columns"),
+                    rs.getLong("seats_occupied") | booked,
+                    (rs.getLong("seats_kind_low") & ~booked) | rs.getLong("booked_kind_low"),
+                    (rs.getLong("seats_kind_high") & ~booked) | rs.getLong("booked_kind_high")
+            );
+
             return Ride.fromRepository(
                     RideID.fromString(rs.getString("id")),
                     CarID.fromString(rs.getString("car_id")),
@@ -381,13 +595,14 @@ public class JetRideRepository implements RideRepository {
                     route,
                     time,
                     new Price(rs.getBigDecimal("price")),
-                    new SeatMap(seats),
+                    seatMap,
                     RideStatus.valueOf(rs.getString("status")),
                     new RideDesc(rs.getString("description")),
                     rules,
                     dates,
                     rs.getBoolean("has_active_contract"),
-                    new Fee(rs.getBigDecimal("fee"))
+                    new Fee(rs.getBigDecimal("fee")),
+                    rs.getLong("version")
             );
         } catch (JsonProcessingException e) {
             throw new SQLException(e);
@@ -8,10 +8,14 @@ import static org.project.infrastructure.repository.JetOTPRepository.mapTransact
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.List;
 import java.util.UUID;
 
 import org.project.domain.shared.containers.Result;
 import org.project.domain.shared.value_objects.Dates;
+import org.project.domain.shared.value_objects.DriverID;
+import org.project.domain.shared.value_objects.OwnerID;
+import org.project.domain.shared.value_objects.UserID;
 import org.project.domain.user.entities.User;
 import org.project.domain.user.repositories.UserRepository;
 import org.project.domain.user.value_objects.Email;
@@ -19,6 +23,7 @@ import org.project.domain.user.value_objects.Identifier;
 import org.project.domain.user.value_objects.KeyAndCounter;
 import org.project.domain.user.value_objects.PersonalData;
 import org.project.domain.user.value_objects.Phone;
+import org.project.domain.user.value_objects.PrincipalContext;
 import org.project.domain.user.value_objects.RefreshToken;
 
 import org.slf4j.Logger;
@@ -123,6 +128,22 @@ public class JetUserRepository implements UserRepository {
             .build()
             .sql();
 
+    static final String EMAILS_AFTER = """
+            SELECT email
+            FROM user_account
+            WHERE email > ?
+            ORDER BY email
+            LIMIT ?;
+            """;
+
+    static final String PHONES_AFTER = """
+            SELECT phone
+            FROM user_account
+            WHERE phone > ?
+            ORDER BY phone
+            LIMIT ?;
+            """;
+
     static final String USER_BY_ID = select()
             .all()
             .from("user_account")
@@ -144,6 +165,10 @@ public class JetUserRepository implements UserRepository {
             .build()
             .sql();
 
+    static final String PRINCIPAL_BY_EMAIL = principalBy("email");
+
+    static final String PRINCIPAL_BY_PHONE = principalBy("phone");
+
     static final String REFRESH_TOKEN_BY_TOKEN = select()
             .all()
             .from("refresh_token")
@@ -151,6 +176,16 @@ public class JetUserRepository implements UserRepository {
             .build()
             .sql();
 
+    private static String principalBy(String column) {
+        return """
+                SELECT u.id, d.id AS driver_id, o.id AS owner_id
+                FROM user_account u
+                LEFT JOIN driver d ON d.user_id = u.id
+                LEFT JOIN owner o ON o.user_id = u.id
+                WHERE u.%s = ?
+                """.formatted(column);
+    }
+
     /* ================= SAVE / UPDATE ================= */
 
     @Override
@@ -263,6 +298,18 @@ public class JetUserRepository implements UserRepository {
                 .orElse(false);
     }
 
+    @Override
+    public Result<List<String>, Throwable> emailsAfter(String after, int limit) {
+        var result = jet.readListOf(EMAILS_AFTER, rs -> rs.getString(1), after, limit);
+        return new Result<>(result.value(), result.throwable(), result.success());
+    }
+
+    @Override
+    public Result<List<String>, Throwable> phonesAfter(String after, int limit) {
+        var result = jet.readListOf(PHONES_AFTER, rs -> rs.getString(1), after, limit);
+        return new Result<>(result.value(), result.throwable(), result.success());
+    }
+
     /* ================= FIND ================= */
 
     @Override
@@ -291,6 +338,15 @@ public class JetUserRepository implements UserRepository {
         };
     }
 
+    @Override
+    public Result<PrincipalContext, Throwable> findPrincipal(Identifier identifier) {
+        var r = switch (identifier) {
+            case Email e -> jet.read(PRINCIPAL_BY_EMAIL, this::principalMapper, e.email());
+            case Phone p -> jet.read(PRINCIPAL_BY_PHONE, this::principalMapper, p.phoneNumber());
+        };
+        return new Result<>(r.value(), r.throwable(), r.success());
+    }
+
     @Override
     public Result<RefreshToken, Throwable> findRefreshToken(String refreshToken) {
         var r = jet.read(REFRESH_TOKEN_BY_TOKEN, this::refreshTokenMapper, refreshToken);
@@ -323,6 +379,17 @@ public class JetUserRepository implements UserRepository {
         );
     }
 
+    private PrincipalContext principalMapper(ResultSet rs) throws SQLException {
+        String driverID = rs.getString("driver_id");
+        String ownerID = rs.getString("owner_id");
+
+        return new PrincipalContext(
+                new UserID(UUID.fromString(rs.getString("id"))),
+                driverID == null ? null : DriverID.fromString(driverID),
+                ownerID == null ? null : OwnerID.fromString(ownerID)
+        );
+    }
+
     private RefreshToken refreshTokenMapper(ResultSet rs) throws SQLException {
         return new RefreshToken(
                 UUID.fromString(rs.getString("user_id")),
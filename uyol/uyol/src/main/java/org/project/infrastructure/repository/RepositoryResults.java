@@ -0,0 +1,23 @@
+package org.project.infrastructure.repository;
+
+import org.project.domain.shared.containers.Result;
+import org.project.domain.shared.exceptions.ConcurrentUpdateException;
+
+import static org.project.infrastructure.repository.JetOTPRepository.mapTransactionResult;
+
+/** Result mappers shared by the repositories that write guarded updates. */
+final class RepositoryResults {
+
+    private RepositoryResults() {
+    }
+
+    /** For {@code WHERE id = ? AND version = ?} updates: no affected row means someone else got there first. */
+    static Result<Integer, Throwable> mapVersionedResult(
+            com.hadzhy.jetquerious.util.Result<Integer, Throwable> result
+    ) {
+        if (result.success() && (result.value() == null || result.value() == 0))
+            return Result.failure(new ConcurrentUpdateException("Entity was modified concurrently"));
+
+        return mapTransactionResult(result);
+    }
+}
@@ -1,29 +1,188 @@
 package org.project.infrastructure.security;
 
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import de.mkammerer.argon2.Argon2;
 import de.mkammerer.argon2.Argon2Factory;
+import de.mkammerer.argon2.Argon2Helper;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Argon2 hashing on a dedicated pool. Every hash takes {@link #MEMORY_KIB} of native memory, so
+ * at most {@code concurrency} run at once and at most {@code queue-capacity} wait; beyond that
+ * {@link #encode} and {@link #verify} throw {@link RejectedExecutionException} at once instead of
+ * holding a request thread. The iteration count is calibrated when the node starts so a hash
+ * takes about {@code target-millis}, never below {@link #MIN_ITERATIONS}; {@link #needsRehash}
+ * tells which stored hashes are weaker than that.
+ */
 @Component
 public class PasswordEncoder {
 
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncoder.class);
+
+    static final int MEMORY_KIB = 65_536;
+
+    static final int PARALLELISM = 4;
+
+    static final int MIN_ITERATIONS = 2;
+
     private final Argon2 argon2;
+    private final int iterations;
+    private final ThreadPoolExecutor pool;
+    private final Timer hashTime;
+    private final Timer verifyTime;
+    private final Timer queueWait;
+    private final Counter rejected;
 
-    public PasswordEncoder() {
+    public PasswordEncoder(
+            MeterRegistry meterRegistry,
+            @Value("${security.password-hashing.concurrency:4}") int concurrency,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password-hashing.target-millis:250}") long targetMillis
+    ) {
         this.argon2 = Argon2Factory.create();
+        this.iterations = calibrate(argon2, targetMillis);
+
+        AtomicInteger threads = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(
+                concurrency, concurrency,
+                0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threads.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.hashTime = Timer.builder("password_hashing.time")
+                .tag("operation", "hash")
+                .register(meterRegistry);
+        this.verifyTime = Timer.builder("password_hashing.time")
+                .tag("operation", "verify")
+                .register(meterRegistry);
+        this.queueWait = Timer.builder("password_hashing.queue_wait")
+                .description("Time a hash waited for a free hashing thread")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("password_hashing.rejected")
+                .description("Hashes refused because the hashing queue was full")
+                .register(meterRegistry);
+        Gauge.builder("password_hashing.queue_depth", pool, executor -> executor.getQueue().size())
+                .register(meterRegistry);
     }
 
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /* ================= HASHING ================= */
+
     public String encode(String password) {
         Objects.requireNonNull(password);
-        return argon2.hash(2, 65_536, 4, password.toCharArray());
+        return run(hashTime, () -> {
+            char[] chars = password.toCharArray();
+            try {
+                return argon2.hash(iterations, MEMORY_KIB, PARALLELISM, chars);
+            } finally {
+                argon2.wipeArray(chars);
+            }
+        });
     }
 
     public boolean verify(String password, String hashed) {
         Objects.requireNonNull(password);
         Objects.requireNonNull(hashed);
-        return argon2.verify(hashed, password.toCharArray());
+        return run(verifyTime, () -> {
+            char[] chars = password.toCharArray();
+            try {
+                return argon2.verify(hashed, chars);
+            } finally {
+                argon2.wipeArray(chars);
+            }
+        });
+    }
+
+    /**
+     * True when the hash is weaker than what this node makes and should be replaced. Only fewer
+     * iterations count, not more: nodes calibrated on different hardware would otherwise keep
+     * rehashing each other's passwords.
+     */
+    public boolean needsRehash(String hashed) {
+        Objects.requireNonNull(hashed);
+        for (String part : hashed.split("\\$")) {
+            if (!part.startsWith("m=")) continue;
+
+            int memory = -1, passes = -1, lanes = -1;
+            for (String parameter : part.split(",")) {
+                String[] pair = parameter.split("=", 2);
+                if (pair.length != 2) return true;
+                try {
+                    switch (pair[0]) {
+                        case "m" -> memory = Integer.parseInt(pair[1]);
+                        case "t" -> passes = Integer.parseInt(pair[1]);
+                        case "p" -> lanes = Integer.parseInt(pair[1]);
+                        default -> { }
+                    }
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+            return memory != MEMORY_KIB || lanes != PARALLELISM || passes < iterations;
+        }
+        return true;
+    }
+
+    /* ================= INTERNALS ================= */
+
+    private <T> T run(Timer time, Callable<T> hashing) {
+        long queuedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = pool.submit(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return time.recordCallable(hashing);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Password hashing was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private static int calibrate(Argon2 argon2, long targetMillis) {
+        int found = Argon2Helper.findIterations(argon2, targetMillis, MEMORY_KIB, PARALLELISM);
+        int iterations = Math.max(MIN_ITERATIONS, found);
+        log.info("Argon2 calibrated to {} iterations for a {} ms target", iterations, targetMillis);
+        return iterations;
     }
 }
@@ -0,0 +1,7 @@
+CREATE INDEX idx_ride_driver_start_time ON ride(driver_id, start_time, id);
+
+CREATE INDEX idx_ride_owner_start_time ON ride(owner_id, start_time, id);
+
+CREATE INDEX idx_ride_contract_user_id ON ride_contract(user_id, id);
+
+CREATE INDEX idx_car_owner_license_plate ON car(owner, license_plate);
@@ -0,0 +1,3 @@
+CREATE INDEX idx_ride_status_start_time ON ride(status, start_time, id);
+
+DROP INDEX idx_ride_status ON ride;
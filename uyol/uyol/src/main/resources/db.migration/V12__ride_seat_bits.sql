@@ -0,0 +1,44 @@
+ALTER TABLE ride
+    ADD COLUMN seat_rows TINYINT NOT NULL DEFAULT 0,
+    ADD COLUMN seat_columns TINYINT NOT NULL DEFAULT 0,
+    ADD COLUMN seats_occupied BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN seats_kind_low BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN seats_kind_high BIGINT NOT NULL DEFAULT 0;
+
+-- seat i (row-major) is bit i; occupant codes: 01 male, 10 female, 11 child
+UPDATE ride r
+JOIN (
+    SELECT
+        rs.id AS id,
+        CAST(BIT_OR(
+            CASE WHEN s.status IN ('MALE_OCCUPIED', 'FEMALE_OCCUPIED', 'CHILD_OCCUPIED') THEN 1 ELSE 0 END
+                << ((s.row_no - 1) * JSON_LENGTH(rs.seats, '$[0]') + s.col_no - 1)
+        ) AS SIGNED) AS occupied,
+        CAST(BIT_OR(
+            CASE WHEN s.status IN ('MALE_OCCUPIED', 'CHILD_OCCUPIED') THEN 1 ELSE 0 END
+                << ((s.row_no - 1) * JSON_LENGTH(rs.seats, '$[0]') + s.col_no - 1)
+        ) AS SIGNED) AS kind_low,
+        CAST(BIT_OR(
+            CASE WHEN s.status IN ('FEMALE_OCCUPIED', 'CHILD_OCCUPIED') THEN 1 ELSE 0 END
+                << ((s.row_no - 1) * JSON_LENGTH(rs.seats, '$[0]') + s.col_no - 1)
+        ) AS SIGNED) AS kind_high
+    FROM ride rs,
+         JSON_TABLE(rs.seats, '$[*]' COLUMNS (
+             row_no FOR ORDINALITY,
+             NESTED PATH '$[*]' COLUMNS (
+                 col_no FOR ORDINALITY,
+                 status VARCHAR(16) PATH '$'
+             )
+         )) s
+    GROUP BY rs.id
+) bits ON bits.id = r.id
+SET r.seat_rows = JSON_LENGTH(r.seats),
+    r.seat_columns = JSON_LENGTH(r.seats, '$[0]'),
+    r.seats_occupied = bits.occupied,
+    r.seats_kind_low = bits.kind_low,
+    r.seats_kind_high = bits.kind_high;
+
+ALTER TABLE ride
+    ALTER COLUMN seat_rows DROP DEFAULT,
+    ALTER COLUMN seat_columns DROP DEFAULT,
+    DROP COLUMN seats;
@@ -0,0 +1,19 @@
+CREATE TABLE ride_seat (
+    ride_id CHAR(36) NOT NULL,
+    seat_index TINYINT NOT NULL,
+    contract_id CHAR(36) NOT NULL,
+    occupant VARCHAR(15) NOT NULL CHECK ( occupant IN ('MALE_OCCUPIED', 'FEMALE_OCCUPIED', 'CHILD_OCCUPIED') ),
+    PRIMARY KEY (ride_id, seat_index),
+    CONSTRAINT fk_ride_seat_ride FOREIGN KEY (ride_id) REFERENCES ride(id)
+);
+
+CREATE INDEX idx_ride_seat_contract ON ride_seat(contract_id);
+
+-- seats booked before this table existed; a seat double-booked through lost updates is kept only once
+INSERT IGNORE INTO ride_seat (ride_id, seat_index, contract_id, occupant)
+SELECT rc.ride_id, s.seat_index, rc.id, s.occupant
+FROM ride_contract rc,
+     JSON_TABLE(rc.booked_seats, '$[*]' COLUMNS (
+         seat_index TINYINT PATH '$.index',
+         occupant VARCHAR(15) PATH '$.status'
+     )) s;
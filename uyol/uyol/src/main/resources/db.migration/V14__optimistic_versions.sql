@@ -0,0 +1,3 @@
+ALTER TABLE ride ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE driver ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
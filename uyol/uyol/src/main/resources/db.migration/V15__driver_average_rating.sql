@@ -0,0 +1,5 @@
+ALTER TABLE driver ADD COLUMN average_rating DECIMAL(10, 4) AS (
+  CASE WHEN total_reviews > 0 THEN sum_of_scores / total_reviews ELSE 0 END
+) STORED NOT NULL;
+
+CREATE INDEX idx_driver_status_average_rating ON driver(status, average_rating DESC, id);
@@ -0,0 +1,11 @@
+ALTER TABLE ride_contract ADD COLUMN created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+
+CREATE INDEX idx_ride_contract_ride_created_at ON ride_contract(ride_id, created_at, id);
+
+CREATE INDEX idx_ride_contract_user_created_at ON ride_contract(user_id, created_at, id);
+
+DROP INDEX idx_ride_contract_user_id ON ride_contract;
+
+CREATE INDEX idx_car_owner_created_at ON car(owner, created_at, id);
+
+DROP INDEX idx_car_owner_license_plate ON car;
@@ -0,0 +1,10 @@
+-- ride_seat owns every booked seat; the legacy bits keep only the seats marked taken when the ride was created
+UPDATE ride r
+JOIN (
+    SELECT ride_id, CAST(BIT_OR(1 << seat_index) AS SIGNED) AS booked
+    FROM ride_seat
+    GROUP BY ride_id
+) b ON b.ride_id = r.id
+SET r.seats_occupied = CAST(r.seats_occupied & ~b.booked AS SIGNED),
+    r.seats_kind_low = CAST(r.seats_kind_low & ~b.booked AS SIGNED),
+    r.seats_kind_high = CAST(r.seats_kind_high & ~b.booked AS SIGNED);
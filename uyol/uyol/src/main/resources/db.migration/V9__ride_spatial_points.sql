@@ -0,0 +1,9 @@
+ALTER TABLE ride
+    ADD COLUMN from_point POINT SRID 4326
+        AS (ST_SRID(POINT(from_longitude, from_latitude), 4326)) STORED NOT NULL,
+    ADD COLUMN to_point POINT SRID 4326
+        AS (ST_SRID(POINT(to_longitude, to_latitude), 4326)) STORED NOT NULL;
+
+CREATE SPATIAL INDEX idx_ride_from_point ON ride(from_point);
+
+CREATE SPATIAL INDEX idx_ride_to_point ON ride(to_point);
@@ -0,0 +1,112 @@
+package org.project.application.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.project.domain.shared.containers.Result;
+import org.project.domain.shared.exceptions.ConcurrentUpdateException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class RestUtilTest {
+
+    @Test
+    void retriesALostRaceUntilTheWriteGoesThrough() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String written = RestUtil.retryOnConflict(() -> {
+            if (attempts.incrementAndGet() < RestUtil.MAX_CONFLICT_ATTEMPTS)
+                throw new ConcurrentUpdateException("Ride was changed concurrently");
+            return "written";
+        });
+
+        assertEquals("written", written);
+        assertEquals(RestUtil.MAX_CONFLICT_ATTEMPTS, attempts.get());
+    }
+
+    @Test
+    void answersConflictOnceTheAttemptsRunOut() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> RestUtil.retryOnConflict(() -> {
+            attempts.incrementAndGet();
+            throw new ConcurrentUpdateException("Ride was changed concurrently");
+        }));
+
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+        assertEquals(RestUtil.MAX_CONFLICT_ATTEMPTS, attempts.get());
+    }
+
+    @Test
+    void racingWritersNeverLoseAnUpdate() throws Exception {
+        // a versioned row: the value and the version it was written at
+        AtomicReference<long[]> row = new AtomicReference<>(new long[]{0, 0});
+        AtomicInteger written = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        int writers = 8;
+        int updatesEach = 2_000;
+
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int w = 0; w < writers; w++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < updatesEach; i++) {
+                    try {
+                        RestUtil.retryOnConflict(() -> {
+                            long[] read = row.get();
+                            if (!row.compareAndSet(read, new long[]{read[0] + 1, read[1] + 1}))
+                                throw new ConcurrentUpdateException("Ride was changed concurrently");
+                        });
+                        written.incrementAndGet();
+                    } catch (ResponseStatusException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(writers * updatesEach, written.get() + conflicts.get());
+        assertEquals(written.get(), row.get()[0]);
+        assertEquals(row.get()[0], row.get()[1]);
+    }
+
+    @Test
+    void doesNotRetryOtherFailures() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> RestUtil.retryOnConflict(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("Database is down");
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void writtenPassesConflictsOnAndTurnsOtherFailuresInto500() {
+        assertEquals("ride", RestUtil.written(Result.success("ride")));
+        assertThrows(ConcurrentUpdateException.class, () ->
+                RestUtil.written(Result.failure(new ConcurrentUpdateException("Ride was changed concurrently"))));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () ->
+                RestUtil.written(Result.failure(new IllegalStateException("Database is down"))));
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, e.getStatusCode());
+    }
+}
@@ -0,0 +1,143 @@
+package org.project.domain.ride.value_object;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.project.domain.ride.enumerations.SeatStatus;
+import org.project.domain.shared.exceptions.IllegalDomainArgumentException;
+
+class SeatMapTest {
+
+    @Test
+    void bitsRoundTripEveryOccupant() {
+        SeatStatus[][] seats = {
+                {SeatStatus.DRIVER, SeatStatus.MALE_OCCUPIED},
+                {SeatStatus.FEMALE_OCCUPIED, SeatStatus.EMPTY},
+                {SeatStatus.CHILD_OCCUPIED, SeatStatus.EMPTY}
+        };
+        SeatMap seatMap = new SeatMap(seats);
+
+        SeatMap restored = SeatMap.fromBits(
+                seatMap.rowCount(),
+                seatMap.columnCount(),
+                seatMap.occupiedBits(),
+                seatMap.kindLowBits(),
+                seatMap.kindHighBits()
+        );
+
+        assertEquals(seatMap, restored);
+        assertArrayEquals(seats, restored.seats());
+        assertEquals(List.of(1, 2, 4), restored.occupiedIndexes());
+    }
+
+    @Test
+    void occupiesFreeSeatsWithoutChangingTheOriginal() {
+        SeatMap empty = SeatMap.ofEmpty(2, 2);
+
+        SeatMap taken = empty.occupy(3, SeatStatus.CHILD_OCCUPIED);
+
+        assertEquals(SeatStatus.CHILD_OCCUPIED, taken.status(3));
+        assertFalse(taken.isAvailable(3));
+        assertTrue(empty.isAvailable(3));
+    }
+
+    @Test
+    void refusesToOccupyTakenSeat() {
+        SeatMap seatMap = SeatMap.ofEmpty(2, 2).occupy(1, SeatStatus.MALE_OCCUPIED);
+
+        assertThrows(IllegalDomainArgumentException.class, () -> seatMap.occupy(1, SeatStatus.FEMALE_OCCUPIED));
+        assertThrows(IllegalDomainArgumentException.class, () -> seatMap.occupyAll(new BookedSeats(List.of(
+                new PassengerSeat(2, SeatStatus.FEMALE_OCCUPIED),
+                new PassengerSeat(1, SeatStatus.CHILD_OCCUPIED)
+        ))));
+        assertTrue(seatMap.isAvailable(2));
+    }
+
+    @Test
+    void refusesDriverSeatAndSeatsPastTheMatrix() {
+        SeatMap seatMap = SeatMap.ofEmpty(2, 2);
+
+        assertThrows(IllegalDomainArgumentException.class, () -> seatMap.occupy(0, SeatStatus.MALE_OCCUPIED));
+        assertThrows(IllegalDomainArgumentException.class, () -> seatMap.occupy(4, SeatStatus.MALE_OCCUPIED));
+        assertThrows(IllegalDomainArgumentException.class, () -> seatMap.status(2, 0));
+        assertThrows(IllegalDomainArgumentException.class, () -> seatMap.status(0, 2));
+    }
+
+    @Test
+    void usesEverySeatOfTheLargestMatrix() {
+        SeatMap seatMap = SeatMap.ofEmpty(SeatMap.MAX_SEATS / SeatMap.MAX_COLUMNS, SeatMap.MAX_COLUMNS)
+                .occupy(SeatMap.MAX_SEATS - 1, SeatStatus.FEMALE_OCCUPIED);
+
+        SeatMap restored = SeatMap.fromBits(
+                seatMap.rowCount(),
+                seatMap.columnCount(),
+                seatMap.occupiedBits(),
+                seatMap.kindLowBits(),
+                seatMap.kindHighBits()
+        );
+
+        assertEquals(SeatMap.MAX_SEATS, restored.size());
+        assertEquals(SeatStatus.FEMALE_OCCUPIED, restored.status(SeatMap.MAX_SEATS - 1));
+        assertTrue(restored.hasAvailableSeats());
+    }
+
+    @Test
+    void booksAWholeGroupInOnePass() {
+        SeatMap seatMap = SeatMap.ofEmpty(SeatMap.MAX_SEATS / SeatMap.MAX_COLUMNS, SeatMap.MAX_COLUMNS);
+        BookedSeats group = everyPassengerSeat(seatMap);
+
+        SeatMap booked = seatMap.occupyAll(group);
+
+        assertEquals(SeatMap.MAX_SEATS - 1, booked.occupiedIndexes().size());
+        assertFalse(booked.hasAvailableSeats());
+        for (PassengerSeat seat : group.bookedSeats())
+            assertEquals(seat.status(), booked.status(seat.index()));
+    }
+
+    @Test
+    void groupBookingStaysWithinItsCostBudget() {
+        SeatMap seatMap = SeatMap.ofEmpty(SeatMap.MAX_SEATS / SeatMap.MAX_COLUMNS, SeatMap.MAX_COLUMNS);
+        BookedSeats group = everyPassengerSeat(seatMap);
+
+        for (int i = 0; i < 20_000; i++) seatMap.occupyAll(group);
+
+        int rounds = 100_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) seatMap.occupyAll(group);
+        long perBooking = (System.nanoTime() - start) / rounds;
+
+        // one pass over 63 seats runs in well under a microsecond; the bound leaves room for slow machines
+        assertTrue(perBooking < 20_000, "64-seat group booking took " + perBooking + " ns");
+    }
+
+    @Test
+    void refusesMatricesPastTheLimits() {
+        assertThrows(IllegalDomainArgumentException.class, () -> SeatMap.ofEmpty(1, SeatMap.MAX_COLUMNS + 1));
+        assertThrows(IllegalDomainArgumentException.class, () -> SeatMap.ofEmpty(SeatMap.MAX_SEATS / SeatMap.MAX_COLUMNS + 1, SeatMap.MAX_COLUMNS));
+        assertThrows(IllegalDomainArgumentException.class, () -> SeatMap.ofEmpty(1, 1));
+        assertThrows(IllegalDomainArgumentException.class, () -> SeatMap.ofEmpty(0, 2));
+        assertEquals(2, SeatMap.ofEmpty(1, 2).size());
+    }
+
+    @Test
+    void refusesBitsOutsideTheMatrix() {
+        assertThrows(IllegalDomainArgumentException.class, () -> SeatMap.fromBits(2, 2, 1L << 4, 1L << 4, 0));
+        assertThrows(IllegalDomainArgumentException.class, () -> SeatMap.fromBits(2, 2, 1L, 1L, 0));
+        assertThrows(IllegalDomainArgumentException.class, () -> SeatMap.fromBits(2, 2, 1L << 1, 0, 0));
+    }
+
+    private static BookedSeats everyPassengerSeat(SeatMap seatMap) {
+        SeatStatus[] occupants = {SeatStatus.MALE_OCCUPIED, SeatStatus.FEMALE_OCCUPIED, SeatStatus.CHILD_OCCUPIED};
+        List<PassengerSeat> seats = new ArrayList<>();
+        for (int index = 1; index < seatMap.size(); index++)
+            seats.add(new PassengerSeat(index, occupants[index % occupants.length]));
+        return new BookedSeats(seats);
+    }
+}
@@ -0,0 +1,46 @@
+package org.project.infrastructure.cache;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void neverForgetsAnAddedKey() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) keys.add("user" + i + "@example.com");
+
+        keys.forEach(filter::add);
+
+        for (String key : keys) assertTrue(filter.mightContain(key), key);
+    }
+
+    @Test
+    void keepsConcurrentAdds() {
+        BloomFilter filter = new BloomFilter(20_000, 0.01);
+        List<String> keys = IntStream.range(0, 20_000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+
+        keys.parallelStream().forEach(filter::add);
+
+        for (String key : keys) assertTrue(filter.mightContain(key), key);
+    }
+
+    @Test
+    void staysNearItsFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filter.add("AZ" + i);
+
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> filter.mightContain("absent" + i))
+                .count();
+
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
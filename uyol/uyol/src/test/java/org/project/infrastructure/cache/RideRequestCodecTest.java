@@ -0,0 +1,94 @@
+package org.project.infrastructure.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.project.domain.fleet.value_objects.LicensePlate;
+import org.project.domain.ride.entities.RideRequest;
+import org.project.domain.ride.enumerations.RideRule;
+import org.project.domain.ride.enumerations.SeatStatus;
+import org.project.domain.ride.value_object.Location;
+import org.project.domain.ride.value_object.Price;
+import org.project.domain.ride.value_object.RideDesc;
+import org.project.domain.ride.value_object.RideRequestID;
+import org.project.domain.ride.value_object.RideTime;
+import org.project.domain.ride.value_object.Route;
+import org.project.domain.ride.value_object.SeatMap;
+import org.project.domain.shared.value_objects.DriverID;
+import org.project.domain.shared.value_objects.OwnerID;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RideRequestCodecTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RideRequestCodec codec = new RideRequestCodec(meterRegistry);
+
+    @Test
+    void roundTripsEveryField() {
+        RideRequest rideRequest = rideRequest(EnumSet.of(RideRule.NO_PETS, RideRule.LIMITED_LUGGAGE), new RideDesc("Two stops on the way"));
+
+        assertDecodesTo(rideRequest, codec.deserialize(codec.serialize(rideRequest)));
+    }
+
+    @Test
+    void roundTripsWithoutDescriptionAndRules() {
+        RideRequest rideRequest = rideRequest(EnumSet.noneOf(RideRule.class), null);
+
+        assertDecodesTo(rideRequest, codec.deserialize(codec.serialize(rideRequest)));
+    }
+
+    @Test
+    void skipsAndCountsUnknownVersion() {
+        byte[] encoded = codec.serialize(rideRequest(EnumSet.of(RideRule.NO_SMOKING), null));
+        encoded[0] = RideRequestCodec.VERSION + 1;
+
+        assertNull(codec.deserialize(encoded));
+        assertEquals(1.0, meterRegistry.get("ride_requests.codec.version_mismatch").counter().count());
+    }
+
+    private static void assertDecodesTo(RideRequest expected, RideRequest decoded) {
+        assertEquals(expected.id(), decoded.id());
+        assertEquals(expected.driverID(), decoded.driverID());
+        assertEquals(expected.ownerID(), decoded.ownerID());
+        assertEquals(expected.licensePlate(), decoded.licensePlate());
+        assertEquals(expected.route(), decoded.route());
+        assertEquals(expected.rideTime(), decoded.rideTime());
+        assertEquals(expected.price(), decoded.price());
+        assertEquals(expected.seatMap(), decoded.seatMap());
+        assertEquals(expected.rideDesc(), decoded.rideDesc());
+        assertEquals(expected.rideRules(), decoded.rideRules());
+        assertEquals(expected.createdAt(), decoded.createdAt());
+        assertArrayEquals(expected.seatMap().seats(), decoded.seatMap().seats());
+    }
+
+    private static RideRequest rideRequest(Set<RideRule> rules, RideDesc rideDesc) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MICROS);
+        return new RideRequest(
+                new RideRequestID(UUID.randomUUID()),
+                new DriverID(UUID.randomUUID()),
+                new OwnerID(UUID.randomUUID()),
+                new LicensePlate("10-AB-123"),
+                new Route(
+                        new Location("Baku", 40.4093, 49.8671),
+                        new Location("Ganja", 40.6828, 46.3606)
+                ),
+                new RideTime(start, start.plusHours(5)),
+                new Price(new BigDecimal("25.50")),
+                SeatMap.ofEmpty(2, 3).occupy(4, SeatStatus.FEMALE_OCCUPIED),
+                rideDesc,
+                rules,
+                LocalDateTime.now().truncatedTo(ChronoUnit.MICROS)
+        );
+    }
+}
@@ -0,0 +1,65 @@
+package org.project.infrastructure.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+class JetRideRepositoryTest {
+
+    // DATE(start_time), CAST(start_time AS DATE) and the like; a parenthesised predicate after AND/OR/WHERE is fine
+    private static final Pattern WRAPPED_START_TIME = Pattern.compile(
+            "\\b(?!AND\\b|OR\\b|WHERE\\b)\\w+\\s*\\(\\s*(r\\.)?start_time\\b",
+            Pattern.CASE_INSENSITIVE
+    );
+
+    @Test
+    void dateSearchFiltersAHalfOpenRangeOnTheRawColumn() {
+        for (String sql : List.of(JetRideRepository.FIND_BY_DATE, JetRideRepository.FIND_BY_DATE_AFTER)) {
+            assertTrue(sql.contains("start_time >= ?"), sql);
+            assertTrue(sql.contains("start_time < ?"), sql);
+        }
+    }
+
+    @Test
+    void listingsNeverWrapStartTimeInAFunction() {
+        for (String sql : listings())
+            assertFalse(WRAPPED_START_TIME.matcher(sql).find(), sql);
+    }
+
+    @Test
+    void listingsOrderByTheTailOfTheirIndex() {
+        for (String sql : List.of(
+                JetRideRepository.FIND_BY_OWNER_ID,
+                JetRideRepository.FIND_BY_OWNER_ID_AFTER,
+                JetRideRepository.FIND_BY_DRIVER_ID,
+                JetRideRepository.FIND_BY_DRIVER_ID_AFTER
+        )) assertTrue(sql.contains("start_time DESC, id DESC"), sql);
+
+        for (String sql : List.of(
+                JetRideRepository.FIND_BY_DATE,
+                JetRideRepository.FIND_BY_DATE_AFTER,
+                JetRideRepository.ACTUAL_FOR,
+                JetRideRepository.ACTUAL_FOR_AFTER
+        )) assertTrue(sql.contains("start_time ASC, id ASC"), sql);
+    }
+
+    private static List<String> listings() {
+        return List.of(
+                JetRideRepository.FIND_BY_USER_ID,
+                JetRideRepository.FIND_BY_USER_ID_AFTER,
+                JetRideRepository.FIND_BY_OWNER_ID,
+                JetRideRepository.FIND_BY_OWNER_ID_AFTER,
+                JetRideRepository.FIND_BY_DRIVER_ID,
+                JetRideRepository.FIND_BY_DRIVER_ID_AFTER,
+                JetRideRepository.FIND_BY_DATE,
+                JetRideRepository.FIND_BY_DATE_AFTER,
+                JetRideRepository.ACTUAL_FOR,
+                JetRideRepository.ACTUAL_FOR_AFTER,
+                JetRideRepository.PENDING_FROM
+        );
+    }
+}